@@ -0,0 +1,59 @@
+-- Moves bank_accounts and transactions from IDENTITY ids to the pooled sequences
+-- bank_accounts_seq and transactions_seq (allocation size 50), and drops the
+-- old DEPOSIT/WITHDRAW-only check on transactions.transaction_type.
+--
+-- SQL Server cannot remove the IDENTITY property from a column, so both tables
+-- are rebuilt: copied into tables without it, swapped in by name, and given
+-- back their keys, indexes and constraints. Run once, with the application
+-- stopped, before starting a build that uses pooled ids. Every row of both
+-- tables is copied inside one transaction, so size the log accordingly.
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+
+-- Foreign keys into either table would block dropping it
+DECLARE @sql nvarchar(max) = N'';
+SELECT @sql += N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(parent_object_id)) + N'.'
+        + QUOTENAME(OBJECT_NAME(parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(name) + N';'
+FROM sys.foreign_keys
+WHERE referenced_object_id IN (OBJECT_ID(N'dbo.bank_accounts'), OBJECT_ID(N'dbo.transactions'));
+EXEC sp_executesql @sql;
+
+-- A UNION in SELECT ... INTO creates the columns without the IDENTITY property
+SELECT * INTO dbo.bank_accounts_new FROM dbo.bank_accounts WHERE 1 = 0
+UNION ALL SELECT * FROM dbo.bank_accounts WHERE 1 = 0;
+SELECT * INTO dbo.transactions_new FROM dbo.transactions WHERE 1 = 0
+UNION ALL SELECT * FROM dbo.transactions WHERE 1 = 0;
+
+INSERT INTO dbo.bank_accounts_new SELECT * FROM dbo.bank_accounts;
+INSERT INTO dbo.transactions_new SELECT * FROM dbo.transactions;
+
+DROP TABLE dbo.transactions;
+DROP TABLE dbo.bank_accounts;
+EXEC sp_rename N'dbo.bank_accounts_new', N'bank_accounts';
+EXEC sp_rename N'dbo.transactions_new', N'transactions';
+
+ALTER TABLE dbo.bank_accounts ALTER COLUMN id bigint NOT NULL;
+ALTER TABLE dbo.bank_accounts ADD PRIMARY KEY (id);
+ALTER TABLE dbo.bank_accounts ADD CONSTRAINT UKr9gi1et82prjsig51uqxj2qm6 UNIQUE (account_number);
+ALTER TABLE dbo.bank_accounts ADD CHECK (account_type IN ('SAVINGS', 'CURRENT', 'FIXED_DEPOSIT'));
+ALTER TABLE dbo.bank_accounts ADD CONSTRAINT FK8ngd2pjw12xdt5wasywldwjy3 FOREIGN KEY (bank_id) REFERENCES dbo.banks;
+ALTER TABLE dbo.bank_accounts ADD CONSTRAINT FKahrj5m84hfc167gpma9vcwe0j FOREIGN KEY (user_id) REFERENCES dbo.users;
+
+ALTER TABLE dbo.transactions ALTER COLUMN id bigint NOT NULL;
+ALTER TABLE dbo.transactions ADD PRIMARY KEY (id);
+ALTER TABLE dbo.transactions ADD CHECK (transaction_type IN ('DEPOSIT', 'WITHDRAW', 'TRANSFER_OUT', 'TRANSFER_IN'));
+ALTER TABLE dbo.transactions ADD CONSTRAINT FKe75l92ybte758l9mbevfub06s FOREIGN KEY (account_id) REFERENCES dbo.bank_accounts;
+CREATE INDEX idx_transactions_account_created ON dbo.transactions (account_id, created_at, id);
+CREATE INDEX idx_transactions_created ON dbo.transactions (created_at, id);
+
+-- Hibernate hands out the 50 ids below each sequence value, so start 50 past MAX(id)
+DECLARE @accounts bigint = (SELECT COALESCE(MAX(id), 0) + 50 FROM dbo.bank_accounts);
+DECLARE @transactions bigint = (SELECT COALESCE(MAX(id), 0) + 50 FROM dbo.transactions);
+DROP SEQUENCE IF EXISTS dbo.bank_accounts_seq;
+DROP SEQUENCE IF EXISTS dbo.transactions_seq;
+SET @sql = N'CREATE SEQUENCE dbo.bank_accounts_seq START WITH ' + CAST(@accounts AS nvarchar(20)) + N' INCREMENT BY 50;'
+        + N'CREATE SEQUENCE dbo.transactions_seq START WITH ' + CAST(@transactions AS nvarchar(20)) + N' INCREMENT BY 50;';
+EXEC sp_executesql @sql;
+
+COMMIT TRANSACTION;
@@ -0,0 +1,55 @@
+package com.banking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copies the embedded primary into the embedded replica-0 database once the
+ * application is up, for the {@code replicas-local} profile. The copy is not
+ * kept in step afterwards, so postings made later only show on the primary;
+ * reads of a user pinned by their own posting see them, other reads do not.
+ * The profile's lag query reads {@link #MARKER}, which exists only once the
+ * copy is complete, so the replica is not used before then.
+ */
+@Slf4j
+@Component
+@Profile("replicas-local")
+@RequiredArgsConstructor
+public class LocalReplicaSeeder {
+
+    static final String MARKER = "replica_seeded";
+
+    private final HikariDataSource primaryDataSource;
+    private final ReadReplicaProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() throws SQLException {
+        List<String> script = new ArrayList<>();
+        try (Connection primary = primaryDataSource.getConnection();
+             Statement statement = primary.createStatement();
+             ResultSet rs = statement.executeQuery("SCRIPT")) {
+            while (rs.next()) script.add(rs.getString(1));
+        }
+        ReadReplicaProperties.Replica replica = properties.getReplicas().get(0);
+        try (Connection copy = DriverManager.getConnection(replica.getUrl(), replica.getUsername(), replica.getPassword());
+             Statement statement = copy.createStatement()) {
+            for (String sql : script) statement.execute(sql);
+            statement.execute("CREATE TABLE " + MARKER + " (lag_seconds INT)");
+            statement.execute("INSERT INTO " + MARKER + " VALUES (0)");
+        }
+        log.info("replica-0 seeded from the primary ({} statements)", script.size());
+    }
+}
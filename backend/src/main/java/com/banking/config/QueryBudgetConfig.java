@@ -0,0 +1,57 @@
+package com.banking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL statement budget, on unless
+ * {@code banking.query-budget.enabled=false}. Hibernate reports statements to
+ * a {@link RequestStatementInspector} and JDBC time to a
+ * {@link QueryTimingListener}, the {@link RequestJdbcTemplate} reports both
+ * for its own statements, and a {@link QueryBudgetFilter} around each request
+ * collects them and logs the request if it goes over budget.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+
+    @Bean
+    RequestStatementInspector requestStatementInspector(QueryBudgetProperties properties) {
+        return new RequestStatementInspector(properties);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryBudgetHibernateProperties(RequestStatementInspector inspector) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+            hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+        };
+    }
+
+    // Replaces the auto-configured JdbcTemplate
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, RequestStatementInspector inspector) {
+        return new RequestJdbcTemplate(dataSource, inspector);
+    }
+
+    // Ahead of the security filters, so that user lookups during authentication count too
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties properties,
+                                                                       MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,77 @@
+package com.banking.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tracks the statements and database time of each request and logs it, with
+ * the endpoint and its most repeated statements, when it goes over the budget
+ * ({@code banking.query-budget.*}); a sample of the other requests is logged
+ * at info level. Over-budget requests are also counted in
+ * {@code banking.query-budget.exceeded}, tagged by {@code uri}.
+ */
+@Slf4j
+class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final int TOP_STATEMENTS = 3;
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return properties.getExclude().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestQueries queries = RequestQueries.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueries.end();
+            report(request, queries);
+        }
+    }
+
+    private void report(HttpServletRequest request, RequestQueries queries) {
+        if (queries.getStatements() == 0) return;
+        boolean overBudget = queries.getStatements() > properties.getMaxStatements()
+                || queries.getDbMillis() > properties.getMaxDbMs();
+        if (!overBudget && ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) return;
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        if (overBudget) {
+            Counter.builder("banking.query-budget.exceeded")
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Query budget exceeded on {}: {} statements, {} ms in database (budget {} / {} ms); top: {}",
+                    endpoint, queries.getStatements(), queries.getDbMillis(), properties.getMaxStatements(),
+                    properties.getMaxDbMs(), queries.top(TOP_STATEMENTS));
+        } else {
+            log.info("Sampled {}: {} statements, {} ms in database; top: {}",
+                    endpoint, queries.getStatements(), queries.getDbMillis(), queries.top(TOP_STATEMENTS));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.banking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("banking.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int maxStatements = 25;
+    private long maxDbMs = 250;
+    // Share of within-budget requests that are logged anyway, 0..1
+    private double sampleRate = 0.01;
+    // Fails the statement that goes over maxStatements instead of only logging; meant for tests
+    private boolean failOnExceed;
+    // Ant-style paths that are legitimately statement-heavy and not tracked
+    private List<String> exclude = new ArrayList<>(List.of("/api/teller/batch/**", "/api/admin/export/**"));
+}
@@ -0,0 +1,38 @@
+package com.banking.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the current request's {@link RequestQueries}.
+ * Hibernate creates one per session from its class name, so it needs a public
+ * no-arg constructor.
+ */
+public class QueryTimingListener implements SessionEventListener {
+
+    private long startedNanos;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedNanos = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        RequestQueries queries = RequestQueries.current();
+        if (queries != null) queries.addDbNanos(System.nanoTime() - startedNanos);
+    }
+}
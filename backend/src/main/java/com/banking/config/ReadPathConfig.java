@@ -0,0 +1,22 @@
+package com.banking.config;
+
+import com.banking.dto.AccountDTO;
+import com.banking.service.BalanceCache;
+import com.banking.service.SingleFlight;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Coalescers for the hot read paths; as MeterBinder beans their counters are registered automatically
+@Configuration
+public class ReadPathConfig {
+
+    @Bean
+    public SingleFlight<String, BalanceCache.CachedBalance> balanceLoads() {
+        return new SingleFlight<>("balances");
+    }
+
+    @Bean
+    public SingleFlight<String, AccountDTO.TransactionPage> transactionPageLoads() {
+        return new SingleFlight<>("transactions");
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.config;
+
+import com.banking.service.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read-replica routing, on with {@code banking.read-replicas.enabled=true}.
+ * The application's DataSource becomes a lazy proxy over the primary pool:
+ * the physical connection is fetched on first use, by which time a read-only
+ * transaction has marked it read-only, and read-only connections are taken
+ * from the {@link ReplicaRouter} instead. Everything else uses the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(HikariDataSource primaryDataSource, ReadYourWrites readYourWrites,
+                                       ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaRouter(primaryDataSource, readYourWrites, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRouter replicaRouter) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRouter);
+        return proxy;
+    }
+}
@@ -0,0 +1,27 @@
+package com.banking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("banking.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private int poolSize = 10;
+    private long healthIntervalMs = 5000;
+    // Optional query returning the replica's lag in seconds; without it only reachability is checked
+    private String lagQuery;
+    private long maxLagMs = 5000;
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,149 @@
+package com.banking.config;
+
+import com.banking.service.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection source for read-only transactions. Hands out a connection from
+ * the next healthy replica, round robin, and falls back to the primary when
+ * no replica is healthy, when a replica fails to connect, or when the current
+ * user has just posted (see {@link ReadYourWrites}).
+ *
+ * A replica is healthy while its last check connected and, if a lag query is
+ * configured, reported a lag within {@code max-lag-ms}. Replicas start out
+ * unhealthy, so reads stay on the primary until the first check passes.
+ */
+@Slf4j
+public class ReplicaRouter extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+    private final ReadYourWrites readYourWrites;
+    private final ReadReplicaProperties properties;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        volatile boolean healthy;
+        volatile boolean checked;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    public ReplicaRouter(DataSource primary, ReadYourWrites readYourWrites, ReadReplicaProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.properties = properties;
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadReplicaProperties.Replica config = properties.getReplicas().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(config.getUrl());
+            dataSource.setUsername(config.getUsername());
+            dataSource.setPassword(config.getPassword());
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            dataSource.setConnectionTimeout(2000);
+            dataSource.setInitializationFailTimeout(-1);
+            dataSource.setReadOnly(true);
+            dataSource.setMetricRegistry(meterRegistry);
+            replicas.add(new Replica("replica-" + i, dataSource));
+        }
+        this.replicaReads = Counter.builder("banking.datasource.reads").tag("target", "replica").register(meterRegistry);
+        this.primaryReads = Counter.builder("banking.datasource.reads").tag("target", "primary").register(meterRegistry);
+        Gauge.builder("banking.datasource.replicas.healthy", replicas, r -> r.stream().filter(x -> x.healthy).count())
+                .register(meterRegistry);
+    }
+
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Connector connector) throws SQLException {
+        if (!readYourWrites.isCurrentUserPinned()) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) continue;
+                try {
+                    Connection connection = connector.connect(replica.dataSource);
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLFeatureNotSupportedException e) {
+                    // A call the pool does not support says nothing about the replica
+                    throw e;
+                } catch (SQLException e) {
+                    markUnhealthy(replica, e);
+                }
+            }
+        }
+        primaryReads.increment();
+        return connector.connect(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.read-replicas.health-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                long lagMs = 0;
+                if (properties.getLagQuery() != null && !properties.getLagQuery().isBlank()) {
+                    try (ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+                        lagMs = rs.next() ? rs.getLong(1) * 1000 : Long.MAX_VALUE;
+                    }
+                } else {
+                    statement.execute("SELECT 1");
+                }
+                boolean healthy = lagMs <= properties.getMaxLagMs();
+                if (healthy != replica.healthy || !replica.checked) {
+                    log.info("{} is now {} (lag {} ms)", replica.name, healthy ? "healthy" : "lagging", lagMs);
+                }
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                markUnhealthy(replica, e);
+            }
+            replica.checked = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private void markUnhealthy(Replica replica, SQLException e) {
+        if (replica.healthy || !replica.checked) log.warn("{} is unreachable, reading from the primary: {}", replica.name, e.getMessage());
+        replica.healthy = false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.banking.config;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * JdbcTemplate whose {@code update} and {@code query} calls with inline SQL
+ * (the conditional balance updates in the account repository) count against
+ * the request's query budget like Hibernate's statements do. Time includes
+ * reading the results.
+ */
+class RequestJdbcTemplate extends JdbcTemplate {
+
+    private final RequestStatementInspector inspector;
+
+    RequestJdbcTemplate(DataSource dataSource, RequestStatementInspector inspector) {
+        super(dataSource);
+        this.inspector = inspector;
+    }
+
+    @Override
+    public int update(String sql, Object... args) throws DataAccessException {
+        return tracked(sql, () -> super.update(sql, args));
+    }
+
+    @Override
+    public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) throws DataAccessException {
+        return tracked(sql, () -> super.query(sql, rowMapper, args));
+    }
+
+    private <T> T tracked(String sql, Supplier<T> statement) {
+        RequestQueries queries = RequestQueries.current();
+        if (queries == null) return statement.get();
+        inspector.inspect(sql);
+        long startedNanos = System.nanoTime();
+        try {
+            return statement.get();
+        } finally {
+            queries.addDbNanos(System.nanoTime() - startedNanos);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.config;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Statements issued and time spent in JDBC by the current HTTP request.
+ * Opened and closed by {@link QueryBudgetFilter}; outside a request (scheduled
+ * jobs, the journal applier) there is none and nothing is recorded.
+ */
+final class RequestQueries {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+    // Distinct statements kept per request; beyond that they are only counted
+    private static final int MAX_DISTINCT = 256;
+    private static final int FINGERPRINT_LENGTH = 160;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> statementsBySql = new HashMap<>();
+    private int statements;
+    private long dbNanos;
+
+    static RequestQueries begin() {
+        RequestQueries queries = new RequestQueries();
+        CURRENT.set(queries);
+        return queries;
+    }
+
+    static RequestQueries current() {
+        return CURRENT.get();
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    int statement(String sql) {
+        if (statementsBySql.size() < MAX_DISTINCT || statementsBySql.containsKey(sql)) {
+            statementsBySql.merge(sql, 1, Integer::sum);
+        }
+        return ++statements;
+    }
+
+    void addDbNanos(long nanos) {
+        dbNanos += nanos;
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    long getDbMillis() {
+        return dbNanos / 1_000_000;
+    }
+
+    /**
+     * The most repeated statements as {@code "<count>x <fingerprint>"}, where
+     * the fingerprint has literals and IN lists folded so that an N+1 shows up
+     * as one line with a high count.
+     */
+    List<String> top(int limit) {
+        Map<String, Integer> byFingerprint = new HashMap<>();
+        statementsBySql.forEach((sql, count) -> byFingerprint.merge(fingerprint(sql), count, Integer::sum));
+        return byFingerprint.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(e -> e.getValue() + "x " + e.getKey())
+                .collect(Collectors.toList());
+    }
+
+    static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?..)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > FINGERPRINT_LENGTH ? normalized.substring(0, FINGERPRINT_LENGTH) + "..." : normalized;
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the current request's
+ * {@link RequestQueries}. The SQL is passed through unchanged.
+ */
+class RequestStatementInspector implements StatementInspector {
+
+    private final QueryBudgetProperties properties;
+
+    RequestStatementInspector(QueryBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = RequestQueries.current();
+        if (queries == null) return sql;
+        int statements = queries.statement(sql);
+        if (properties.isFailOnExceed() && statements > properties.getMaxStatements()) {
+            throw new RuntimeException("Query budget exceeded: more than " + properties.getMaxStatements()
+                    + " statements in one request; last: " + RequestQueries.fingerprint(sql));
+        }
+        return sql;
+    }
+}
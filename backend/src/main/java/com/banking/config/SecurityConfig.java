@@ -4,9 +4,14 @@ import com.banking.repository.UserRepository;
 import com.banking.security.CustomUserDetailsService;
 import com.banking.security.JwtAuthFilter;
 import com.banking.security.JwtUtil;
+import com.banking.security.TokenRevocationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -18,7 +23,9 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -34,11 +41,27 @@ public class SecurityConfig {
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService customUserDetailsService;
     private final UserRepository userRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${banking.password.bcrypt-strength:10}")
+    private int passwordStrength;
+
+    @Value("${jwt.stateless-auth:true}")
+    private boolean statelessAuth;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // -1 when actuator shares the API port
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     // 🔥 CREATE FILTER MANUALLY (IMPORTANT)
     @Bean
     public JwtAuthFilter jwtAuthFilter() {
-        return new JwtAuthFilter(jwtUtil, customUserDetailsService);
+        return new JwtAuthFilter(jwtUtil, customUserDetailsService, tokenRevocationService, statelessAuth,
+                meterRegistry);
     }
 
     @Bean
@@ -47,21 +70,41 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Stateless auth is not carried over to error and async dispatches
+                        .dispatcherTypeMatchers(DispatcherType.ERROR, DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/teller/**").hasAnyRole("ADMIN", "BANK_TELLER")
                         .requestMatchers("/api/client/**").hasAnyRole("ADMIN", "BANK_TELLER", "CLIENT")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers(prometheusScrape()).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
                 )
+                .exceptionHandling(ex ->
+                        ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter(), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Prometheus cannot present a JWT, so scrapes are let through without one,
+     * but only on a separate management port that is kept off the public
+     * network. On the API port the endpoint stays admin-only.
+     */
+    private RequestMatcher prometheusScrape() {
+        boolean separatePort = managementPort > 0 && managementPort != serverPort;
+        return request -> separatePort
+                && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -88,8 +131,9 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    // PINs are hashed separately, see PinVerifier
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(passwordStrength);
     }
 }
\ No newline at end of file
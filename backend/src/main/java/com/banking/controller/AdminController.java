@@ -3,17 +3,29 @@ package com.banking.controller;
 import com.banking.dto.AccountDTO;
 import com.banking.dto.AuthDTO;
 import com.banking.entity.Bank;
+import com.banking.entity.UnappliedPosting;
 import com.banking.entity.User;
 import com.banking.repository.BankRepository;
+import com.banking.repository.UnappliedPostingRepository;
 import com.banking.repository.UserRepository;
+import com.banking.security.TokenRevocationService;
 import com.banking.service.AccountService;
 import com.banking.service.AuthService;
+import com.banking.service.DashboardAggregates;
+import com.banking.service.ExportService;
+import com.banking.service.PostingJournal;
+import com.banking.service.RefreshTokenService;
+import com.banking.service.ShardedBalanceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +39,13 @@ public class AdminController {
     private final AuthService authService;
     private final UserRepository userRepository;
     private final BankRepository bankRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final DashboardAggregates dashboardAggregates;
+    private final ExportService exportService;
+    private final ShardedBalanceService shardedBalanceService;
+    private final ObjectProvider<PostingJournal> postingJournal;
+    private final UnappliedPostingRepository unappliedPostingRepository;
 
     // User Management
     @GetMapping("/users")
@@ -43,6 +62,8 @@ public class AdminController {
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         userRepository.deleteById(id);
+        tokenRevocationService.revoke(id);
+        refreshTokenService.revokeAll(id);
         return ResponseEntity.ok("User deleted");
     }
 
@@ -87,24 +108,61 @@ public class AdminController {
         return ResponseEntity.ok(accountService.updateAccount(id, request));
     }
 
+    @PutMapping("/accounts/{id}/balance-shards")
+    public ResponseEntity<?> configureBalanceShards(@PathVariable Long id, @RequestParam int slots) {
+        shardedBalanceService.configure(id, slots);
+        return ResponseEntity.ok(slots > 0 ? "Balance sharded over " + slots + " slots" : "Balance sharding disabled");
+    }
+
     // Transactions
     @GetMapping("/transactions")
-    public ResponseEntity<List<AccountDTO.TransactionResponse>> getAllTransactions() {
-        return ResponseEntity.ok(accountService.getAllTransactions());
+    public ResponseEntity<AccountDTO.TransactionPage> getAllTransactions(AccountDTO.TransactionQuery query) {
+        return ResponseEntity.ok(accountService.getAllTransactions(query));
+    }
+
+    // Exports
+    @GetMapping("/export/transactions")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(AccountDTO.ExportQuery query) {
+        return export("transactions", query, out -> exportService.exportTransactions(query, out));
+    }
+
+    @GetMapping("/export/accounts")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(AccountDTO.ExportQuery query) {
+        return export("accounts", query, out -> exportService.exportAccounts(query, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, AccountDTO.ExportQuery query,
+                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(query.getFormat().contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + query.getFormat().extension + "\"")
+                .body(body);
     }
 
     // Dashboard
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboard() {
-        BigDecimal totalBalance = accountService.getTotalBalance();
+        DashboardAggregates.Snapshot snapshot = dashboardAggregates.snapshot();
         long totalUsers = userRepository.count();
-        long totalAccounts = accountService.getAllAccounts().size();
-        long totalTransactions = accountService.getAllTransactions().size();
-        return ResponseEntity.ok(Map.of(
-            "totalBalance", totalBalance,
-            "totalUsers", totalUsers,
-            "totalAccounts", totalAccounts,
-            "totalTransactions", totalTransactions
-        ));
+        Map<String, Object> dashboard = new LinkedHashMap<>();
+        dashboard.put("totalBalance", snapshot.getTotalBalance());
+        dashboard.put("totalUsers", totalUsers);
+        dashboard.put("totalAccounts", snapshot.getTotalAccounts());
+        dashboard.put("totalTransactions", snapshot.getTotalTransactions());
+        PostingJournal journal = postingJournal.getIfAvailable();
+        if (journal != null) {
+            dashboard.put("journalSequence", journal.getLastSequence());
+            dashboard.put("journalAppliedSequence", journal.getAppliedSequence());
+            dashboard.put("journalBacklog", journal.getApplyBacklog());
+            dashboard.put("journalUnapplied", unappliedPostingRepository.count());
+        }
+        return ResponseEntity.ok(dashboard);
+    }
+
+    // Acknowledged journaled postings the applier could not post, for reconciliation
+    @GetMapping("/journal/unapplied")
+    public ResponseEntity<List<UnappliedPosting>> getUnappliedPostings() {
+        return ResponseEntity.ok(unappliedPostingRepository.findAllByOrderByIdAsc());
     }
 }
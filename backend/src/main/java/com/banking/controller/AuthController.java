@@ -18,6 +18,11 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request));
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthDTO.LoginResponse> refresh(@RequestBody AuthDTO.RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody AuthDTO.RegisterRequest request) {
         authService.register(request);
@@ -1,13 +1,17 @@
 package com.banking.controller;
 
 import com.banking.dto.AccountDTO;
-import com.banking.security.JwtUtil;
+import com.banking.entity.User;
+import com.banking.security.JwtClaims;
 import com.banking.service.AccountService;
+import com.banking.service.BalanceSnapshotService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,7 +20,7 @@ import java.util.List;
 public class ClientController {
 
     private final AccountService accountService;
-    private final JwtUtil jwtUtil;
+    private final BalanceSnapshotService balanceSnapshotService;
 
     @GetMapping("/accounts")
     public ResponseEntity<List<AccountDTO.AccountResponse>> getMyAccounts(HttpServletRequest request) {
@@ -30,10 +34,27 @@ public class ClientController {
         return ResponseEntity.ok(accountService.getBalance(accountNumber));
     }
 
+    @GetMapping("/accounts/{accountNumber}/balance-as-of")
+    public ResponseEntity<AccountDTO.BalanceAsOfResponse> getBalanceAsOf(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at,
+            HttpServletRequest httpRequest) {
+        if (isCustomer(httpRequest)) accountService.requireOwner(accountNumber, getUserId(httpRequest));
+        return ResponseEntity.ok(balanceSnapshotService.getBalanceAsOf(accountNumber, at));
+    }
+
+    @GetMapping("/accounts/{accountNumber}/balance-history")
+    public ResponseEntity<List<AccountDTO.BalancePoint>> getBalanceHistory(
+            @PathVariable String accountNumber, AccountDTO.BalanceHistoryQuery query,
+            HttpServletRequest httpRequest) {
+        if (isCustomer(httpRequest)) accountService.requireOwner(accountNumber, getUserId(httpRequest));
+        return ResponseEntity.ok(balanceSnapshotService.getBalanceHistory(accountNumber, query));
+    }
+
     @GetMapping("/accounts/{accountNumber}/transactions")
-    public ResponseEntity<List<AccountDTO.TransactionResponse>> getTransactions(
-            @PathVariable String accountNumber) {
-        return ResponseEntity.ok(accountService.getTransactions(accountNumber));
+    public ResponseEntity<AccountDTO.TransactionPage> getTransactions(
+            @PathVariable String accountNumber, AccountDTO.TransactionQuery query) {
+        return ResponseEntity.ok(accountService.getTransactions(accountNumber, query));
     }
 
     @PostMapping("/accounts/pin")
@@ -42,16 +63,37 @@ public class ClientController {
         return ResponseEntity.ok("PIN set successfully");
     }
 
+    @PostMapping("/accounts/pin/session")
+    public ResponseEntity<AccountDTO.PinSessionResponse> startPinSession(
+            @RequestBody AccountDTO.PinSessionRequest request,
+            HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(accountService.startPinSession(request, getUserId(httpRequest), isCustomer(httpRequest)));
+    }
+
     @PostMapping("/withdraw")
     public ResponseEntity<AccountDTO.TransactionResponse> withdraw(
             @RequestBody AccountDTO.TransactionRequest request,
             HttpServletRequest httpRequest) {
         Long userId = getUserId(httpRequest);
-        return ResponseEntity.ok(accountService.withdraw(request, userId));
+        return ResponseEntity.ok(accountService.withdraw(request, userId, isCustomer(httpRequest)));
+    }
+
+    @PostMapping("/transfer")
+    public ResponseEntity<AccountDTO.TransferResponse> transfer(
+            @RequestBody AccountDTO.TransferRequest request,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserId(httpRequest);
+        return ResponseEntity.ok(accountService.transfer(request, userId, isCustomer(httpRequest)));
     }
 
     private Long getUserId(HttpServletRequest request) {
-        String token = request.getHeader("Authorization").substring(7);
-        return jwtUtil.extractUserId(token);
+        JwtClaims claims = (JwtClaims) request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE);
+        return claims.getUserId();
+    }
+
+    // Tellers and admins may also call these endpoints, and post without a PIN as at the counter
+    private boolean isCustomer(HttpServletRequest request) {
+        JwtClaims claims = (JwtClaims) request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE);
+        return User.Role.CLIENT.name().equals(claims.getRole());
     }
 }
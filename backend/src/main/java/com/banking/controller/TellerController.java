@@ -1,14 +1,22 @@
 package com.banking.controller;
 
 import com.banking.dto.AccountDTO;
-import com.banking.security.JwtUtil;
+import com.banking.security.JwtClaims;
 import com.banking.service.AccountService;
+import com.banking.service.BalanceSnapshotService;
+import com.banking.service.BatchPostingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,7 +26,8 @@ import java.util.List;
 public class TellerController {
 
     private final AccountService accountService;
-    private final JwtUtil jwtUtil;
+    private final BalanceSnapshotService balanceSnapshotService;
+    private final BatchPostingService batchPostingService;
 
     @PostMapping("/accounts")
     public ResponseEntity<AccountDTO.AccountResponse> createAccount(
@@ -43,15 +52,46 @@ public class TellerController {
         return ResponseEntity.ok(accountService.withdraw(request, userId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<AccountDTO.BatchPostingReport> postBatch(
+            @RequestBody List<AccountDTO.BatchPostingLine> postings,
+            HttpServletRequest httpRequest) {
+        Long userId = getUserId(httpRequest);
+        return ResponseEntity.ok(batchPostingService.post(postings, userId));
+    }
+
+    @PostMapping(value = "/batch/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AccountDTO.BatchPostingReport> postBatchFile(
+            @RequestParam("file") MultipartFile file,
+            HttpServletRequest httpRequest) throws IOException {
+        Long userId = getUserId(httpRequest);
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(batchPostingService.post(in, userId));
+        }
+    }
+
     @GetMapping("/accounts")
     public ResponseEntity<List<AccountDTO.AccountResponse>> getAllAccounts() {
         return ResponseEntity.ok(accountService.getAllAccounts());
     }
 
+    @GetMapping("/accounts/{accountNumber}/balance-as-of")
+    public ResponseEntity<AccountDTO.BalanceAsOfResponse> getBalanceAsOf(
+            @PathVariable String accountNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(balanceSnapshotService.getBalanceAsOf(accountNumber, at));
+    }
+
+    @GetMapping("/accounts/{accountNumber}/balance-history")
+    public ResponseEntity<List<AccountDTO.BalancePoint>> getBalanceHistory(
+            @PathVariable String accountNumber, AccountDTO.BalanceHistoryQuery query) {
+        return ResponseEntity.ok(balanceSnapshotService.getBalanceHistory(accountNumber, query));
+    }
+
     @GetMapping("/accounts/{accountNumber}/transactions")
-    public ResponseEntity<List<AccountDTO.TransactionResponse>> getTransactions(
-            @PathVariable String accountNumber) {
-        return ResponseEntity.ok(accountService.getTransactions(accountNumber));
+    public ResponseEntity<AccountDTO.TransactionPage> getTransactions(
+            @PathVariable String accountNumber, AccountDTO.TransactionQuery query) {
+        return ResponseEntity.ok(accountService.getTransactions(accountNumber, query));
     }
 
     @GetMapping("/accounts/{accountNumber}/balance")
@@ -60,7 +100,7 @@ public class TellerController {
     }
 
     private Long getUserId(HttpServletRequest request) {
-        String token = request.getHeader("Authorization").substring(7);
-        return jwtUtil.extractUserId(token);
+        JwtClaims claims = (JwtClaims) request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE);
+        return claims.getUserId();
     }
 }
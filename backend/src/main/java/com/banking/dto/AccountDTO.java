@@ -1,8 +1,14 @@
 package com.banking.dto;
 
 import com.banking.entity.BankAccount;
+import com.banking.entity.Transaction;
+import com.banking.service.ExportService;
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public class AccountDTO {
 
@@ -35,6 +41,7 @@ public class AccountDTO {
         private String accountNumber;
         private BigDecimal amount;
         private String pin;
+        private String pinSession; // instead of pin, from /accounts/pin/session
         private String description;
     }
 
@@ -47,6 +54,89 @@ public class AccountDTO {
         private String description;
         private String createdAt;
         private String accountNumber;
+        private Long journalSequence; // set, with id and balanceAfter null, when acknowledged from the journal
+        private String correlationId;
+    }
+
+    @Data
+    public static class PinSessionRequest {
+        private String accountNumber;
+        private String pin;
+    }
+
+    @Data
+    public static class PinSessionResponse {
+        private String pinSession;
+        private long expiresInSeconds;
+    }
+
+    @Data
+    public static class TransferRequest {
+        private String fromAccountNumber;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private String pin;
+        private String pinSession;
+        private String description;
+    }
+
+    @Data
+    public static class TransferResponse {
+        private String correlationId;
+        private TransactionResponse debit;
+        private TransactionResponse credit;
+    }
+
+    @Data
+    public static class BatchPostingLine {
+        private String accountNumber;
+        private Transaction.TransactionType transactionType;
+        private BigDecimal amount;
+        private String description;
+    }
+
+    @Data
+    public static class BatchPostingResult {
+        private int line;
+        private String accountNumber;
+        private boolean posted;
+        private BigDecimal balanceAfter;
+        private String error;
+    }
+
+    @Data
+    public static class BatchPostingReport {
+        private int total;
+        private int posted;
+        private int rejected;
+        private List<BatchPostingResult> results;
+    }
+
+    @Data
+    public static class TransactionQuery {
+        private String cursor;
+        private Integer limit;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime from;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime to;
+    }
+
+    @Data
+    public static class TransactionPage {
+        private List<TransactionResponse> items;
+        private String nextCursor; // null on the last page
+    }
+
+    @Data
+    public static class ExportQuery {
+        private ExportService.Format format = ExportService.Format.NDJSON;
+        private Long bankId;
+        private BankAccount.AccountType accountType;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime from;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime to;
     }
 
     @Data
@@ -61,4 +151,31 @@ public class AccountDTO {
         private String accountNumber;
         private String newPin;
     }
+
+    @Data
+    public static class BalanceAsOfResponse {
+        private String accountNumber;
+        private LocalDateTime asOf;
+        private BigDecimal balance;
+    }
+
+    @Data
+    public static class BalanceHistoryQuery {
+        public enum Interval { DAY, WEEK }
+
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate from;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        private LocalDate to; // inclusive
+        private Interval interval = Interval.DAY;
+    }
+
+    @Data
+    public static class BalancePoint {
+        private LocalDate periodStart;
+        private BigDecimal open;
+        private BigDecimal min;
+        private BigDecimal max;
+        private BigDecimal close;
+    }
 }
@@ -13,18 +13,25 @@ public class AuthDTO {
     @Data
     public static class LoginResponse {
         private String token;
+        private String refreshToken;
         private String role;
         private Long userId;
         private String name;
 
-        public LoginResponse(String token, String role, Long userId, String name) {
+        public LoginResponse(String token, String refreshToken, String role, Long userId, String name) {
             this.token = token;
+            this.refreshToken = refreshToken;
             this.role = role;
             this.userId = userId;
             this.name = name;
         }
     }
 
+    @Data
+    public static class RefreshRequest {
+        private String refreshToken;
+    }
+
     @Data
     public static class RegisterRequest {
         private String username;
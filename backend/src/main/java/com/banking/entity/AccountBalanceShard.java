@@ -0,0 +1,32 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+
+/**
+ * One slot of a sharded account balance. The account's balance is its own
+ * {@code balance} column plus the sum of its slots.
+ */
+@Entity
+@Table(name = "account_balance_shards",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "slot"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountBalanceShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Integer slot;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal balance;
+}
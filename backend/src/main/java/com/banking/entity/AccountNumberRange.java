@@ -0,0 +1,20 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "account_number_ranges")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountNumberRange {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue; // first value not yet leased to any node
+}
@@ -0,0 +1,47 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An account's balance over one day with activity: the balance before its
+ * first transaction, the lowest and highest balance during the day, and the
+ * balance after its last transaction. Days without activity have no row.
+ */
+@Entity
+@Table(name = "balance_snapshots",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "snapshot_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshots_seq")
+    @SequenceGenerator(name = "balance_snapshots_seq", sequenceName = "balance_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "open_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal openBalance;
+
+    @Column(name = "min_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal minBalance;
+
+    @Column(name = "max_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal maxBalance;
+
+    @Column(name = "close_balance", nullable = false, precision = 15, scale = 2)
+    private BigDecimal closeBalance;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+}
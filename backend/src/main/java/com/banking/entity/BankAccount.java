@@ -13,8 +13,10 @@ import java.time.LocalDateTime;
 @Builder
 public class BankAccount {
 
+    // Pooled sequence: ids are handed out 50 at a time, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bank_accounts_seq")
+    @SequenceGenerator(name = "bank_accounts_seq", sequenceName = "bank_accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "account_number", unique = true, nullable = false)
@@ -53,10 +55,18 @@ public class BankAccount {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    private Long version;
+
+    @Column(name = "balance_shards", columnDefinition = "int default 0 not null")
+    private Integer balanceShards; // 0 = all of the balance lives in "balance"
+
     @PrePersist
     public void prePersist() {
-        this.createdAt = LocalDateTime.now();
+        if (this.createdAt == null) this.createdAt = LocalDateTime.now();
         if (this.balance == null) this.balance = BigDecimal.ZERO;
+        if (this.balanceShards == null) this.balanceShards = 0;
     }
 
     public enum AccountType {
@@ -0,0 +1,24 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Named high-water mark for background jobs, e.g. the last journal sequence
+ * applied to the ledger.
+ */
+@Entity
+@Table(name = "checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Checkpoint {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "value", nullable = false)
+    private Long value;
+}
@@ -6,15 +6,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_created", columnList = "account_id, created_at, id"),
+        @Index(name = "idx_transactions_created", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Transaction {
 
+    // Pooled sequence: ids are handed out 50 at a time, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,15 +42,24 @@ public class Transaction {
     @Column(name = "performed_by")
     private Long performedBy; // User ID who performed the transaction
 
+    // Shared by the two legs of a transfer
+    @Column(name = "correlation_id", length = 36)
+    private String correlationId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @PrePersist
     public void prePersist() {
-        this.createdAt = LocalDateTime.now();
+        // Journaled postings keep the time they were acknowledged
+        if (this.createdAt == null) this.createdAt = LocalDateTime.now();
     }
 
     public enum TransactionType {
-        DEPOSIT, WITHDRAW
+        DEPOSIT, WITHDRAW, TRANSFER_OUT, TRANSFER_IN;
+
+        public boolean isCredit() {
+            return this == DEPOSIT || this == TRANSFER_IN;
+        }
     }
 }
@@ -0,0 +1,61 @@
+package com.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A journaled posting that was acknowledged to the caller but could not be
+ * applied to the ledger, kept for manual reconciliation.
+ */
+@Entity
+@Table(name = "unapplied_postings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnappliedPosting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Checkpoint name of the journal the entry came from
+    @Column(name = "journal_id", nullable = false, length = 50)
+    private String journalId;
+
+    @Column(name = "journal_sequence", nullable = false)
+    private Long journalSequence;
+
+    @Column(name = "transaction_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Transaction.TransactionType transactionType;
+
+    @Column(name = "account_number", nullable = false)
+    private String accountNumber;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column
+    private String description;
+
+    @Column(name = "performed_by")
+    private Long performedBy;
+
+    // When the posting was acknowledged
+    @Column(name = "acknowledged_at", nullable = false)
+    private LocalDateTime acknowledgedAt;
+
+    @Column(nullable = false)
+    private String reason;
+
+    @Column(name = "parked_at", nullable = false)
+    private LocalDateTime parkedAt;
+
+    @PrePersist
+    public void prePersist() {
+        if (this.parkedAt == null) this.parkedAt = LocalDateTime.now();
+    }
+}
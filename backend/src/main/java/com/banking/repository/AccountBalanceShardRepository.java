@@ -0,0 +1,24 @@
+package com.banking.repository;
+
+import com.banking.entity.AccountBalanceShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface AccountBalanceShardRepository extends JpaRepository<AccountBalanceShard, Long> {
+
+    // Locked in slot order, the order withdrawals drain them in
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AccountBalanceShard> findByAccountIdOrderBySlotAsc(Long accountId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceShard s WHERE s.accountId = :accountId")
+    BigDecimal sumByAccountId(@Param("accountId") Long accountId);
+
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountBalanceShard s " +
+           "WHERE s.accountId IN (SELECT a.id FROM BankAccount a WHERE a.isActive = true)")
+    BigDecimal getTotalActiveBalance();
+}
@@ -0,0 +1,16 @@
+package com.banking.repository;
+
+import com.banking.entity.AccountNumberRange;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+
+public interface AccountNumberRangeRepository extends JpaRepository<AccountNumberRange, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM AccountNumberRange r WHERE r.name = :name")
+    Optional<AccountNumberRange> findForUpdate(@Param("name") String name);
+}
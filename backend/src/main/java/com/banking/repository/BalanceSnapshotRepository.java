@@ -0,0 +1,22 @@
+package com.banking.repository;
+
+import com.banking.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndDayLessThanOrderByDayDesc(Long accountId, LocalDate day);
+
+    List<BalanceSnapshot> findByAccountIdAndDayBetweenOrderByDayAsc(Long accountId, LocalDate from, LocalDate to);
+
+    // Lets a day be rebuilt after a run that failed part way
+    @Modifying
+    @Query("DELETE FROM BalanceSnapshot s WHERE s.day = :day")
+    int deleteByDay(@Param("day") LocalDate day);
+}
@@ -1,17 +1,72 @@
 package com.banking.repository;
 
 import com.banking.entity.BankAccount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
+public interface BankAccountRepository extends JpaRepository<BankAccount, Long>, BankAccountRepositoryCustom {
     Optional<BankAccount> findByAccountNumber(String accountNumber);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT a.id FROM BankAccount a WHERE a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT a.pinHash FROM BankAccount a WHERE a.accountNumber = :accountNumber")
+    Optional<String> findPinHashByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("SELECT a.user.id FROM BankAccount a WHERE a.accountNumber = :accountNumber")
+    Optional<Long> findOwnerIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    interface BalanceView {
+        String getAccountNumber();
+        String getName();
+        BigDecimal getBalance();
+    }
+
+    // Just the columns a balance lookup returns, including sharded slots. Read from the primary: a value
+    // cached from a lagging replica would outlive the invalidation that follows each posting
+    @Query("SELECT a.accountNumber AS accountNumber, a.name AS name, " +
+           "a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountBalanceShard s WHERE s.accountId = a.id), 0) AS balance " +
+           "FROM BankAccount a WHERE a.accountNumber = :accountNumber")
+    Optional<BalanceView> findBalanceView(@Param("accountNumber") String accountNumber);
+
+    // Listings map bank.bankName, so the bank is fetched with the account; user.id is read off the FK
+    @EntityGraph(attributePaths = "bank")
+    @Query("SELECT a FROM BankAccount a")
+    List<BankAccount> findAllWithBank();
+
+    @EntityGraph(attributePaths = "bank")
     List<BankAccount> findByUserId(Long userId);
+
     boolean existsByAccountNumber(String accountNumber);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM BankAccount a WHERE a.accountNumber = :accountNumber")
+    Optional<BankAccount> findForUpdate(@Param("accountNumber") String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM BankAccount a WHERE a.accountNumber IN :accountNumbers ORDER BY a.id")
+    List<BankAccount> findAllForUpdate(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    List<BankAccount> findByBalanceShardsGreaterThan(Integer shards);
+
+    @Query("SELECT a.balanceShards FROM BankAccount a WHERE a.id = :id")
+    Integer findBalanceShardsById(@Param("id") Long id);
+
+    // Account row plus any sharded slots
+    @Query("SELECT a.balance + COALESCE((SELECT SUM(s.balance) FROM AccountBalanceShard s WHERE s.accountId = a.id), 0) " +
+           "FROM BankAccount a WHERE a.id = :id")
+    BigDecimal getTotalBalanceById(@Param("id") Long id);
+
     @Query("SELECT SUM(a.balance) FROM BankAccount a WHERE a.isActive = true")
     BigDecimal getTotalBalance();
 }
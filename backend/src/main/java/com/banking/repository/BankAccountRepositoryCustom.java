@@ -0,0 +1,36 @@
+package com.banking.repository;
+
+import lombok.Value;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Single-statement balance postings. Each call is one conditional UPDATE that
+ * also returns the new balance; an empty result means no row qualified
+ * (unknown or inactive account, or insufficient balance for a debit).
+ */
+public interface BankAccountRepositoryCustom {
+
+    @Value
+    class PostedBalance {
+        Long accountId;
+        BigDecimal balance;
+    }
+
+    Optional<PostedBalance> credit(String accountNumber, BigDecimal amount);
+
+    Optional<PostedBalance> debit(String accountNumber, BigDecimal amount);
+
+    /**
+     * Adds {@code amount} to one slot of a sharded balance, provided the account
+     * is still active. Touches only the slot row, never the account row.
+     */
+    boolean creditShard(Long accountId, int slot, BigDecimal amount);
+
+    /**
+     * Whether a read under READ COMMITTED sees the last committed row versions
+     * instead of waiting on row locks: always on H2 and MySQL, and on SQL
+     * Server only with READ_COMMITTED_SNAPSHOT enabled on the database.
+     */
+    boolean readsCommittedSnapshot();
+}
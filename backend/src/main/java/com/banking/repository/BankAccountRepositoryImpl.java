@@ -0,0 +1,74 @@
+package com.banking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class BankAccountRepositoryImpl implements BankAccountRepositoryCustom {
+
+    private static final RowMapper<PostedBalance> POSTED =
+            (rs, i) -> new PostedBalance(rs.getLong(1), rs.getBigDecimal(2));
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean sqlServer;
+
+    @Override
+    public Optional<PostedBalance> credit(String accountNumber, BigDecimal amount) {
+        return post("balance = balance + ?", "", accountNumber, amount);
+    }
+
+    @Override
+    public Optional<PostedBalance> debit(String accountNumber, BigDecimal amount) {
+        return post("balance = balance - ?", " AND balance >= ?", accountNumber, amount);
+    }
+
+    @Override
+    public boolean creditShard(Long accountId, int slot, BigDecimal amount) {
+        return jdbcTemplate.update(
+                "UPDATE account_balance_shards SET balance = balance + ? " +
+                "WHERE account_id = ? AND slot = ? AND EXISTS " +
+                "(SELECT 1 FROM bank_accounts a WHERE a.id = account_balance_shards.account_id AND a.is_active = ?)",
+                amount, accountId, slot, true) == 1;
+    }
+
+    private Optional<PostedBalance> post(String set, String guard, String accountNumber, BigDecimal amount) {
+        Object[] args = guard.isEmpty()
+                ? new Object[]{amount, accountNumber, true}
+                : new Object[]{amount, accountNumber, true, amount};
+        if (isSqlServer()) {
+            List<PostedBalance> rows = jdbcTemplate.query(
+                    "UPDATE bank_accounts SET " + set + ", version = version + 1 " +
+                    "OUTPUT inserted.id, inserted.balance " +
+                    "WHERE account_number = ? AND is_active = ?" + guard, POSTED, args);
+            return rows.stream().findFirst();
+        }
+        // Portable fallback: the UPDATE holds the row lock, so the re-read sees our own result
+        int updated = jdbcTemplate.update(
+                "UPDATE bank_accounts SET " + set + ", version = version + 1 " +
+                "WHERE account_number = ? AND is_active = ?" + guard, args);
+        if (updated == 0) return Optional.empty();
+        return jdbcTemplate.query("SELECT id, balance FROM bank_accounts WHERE account_number = ?",
+                POSTED, accountNumber).stream().findFirst();
+    }
+
+    @Override
+    public boolean readsCommittedSnapshot() {
+        if (!isSqlServer()) return true;
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT is_read_committed_snapshot_on FROM sys.databases WHERE name = DB_NAME()", Boolean.class));
+    }
+
+    private boolean isSqlServer() {
+        if (sqlServer == null) {
+            sqlServer = jdbcTemplate.execute((ConnectionCallback<Boolean>) con ->
+                    con.getMetaData().getDatabaseProductName().startsWith("Microsoft SQL Server"));
+        }
+        return sqlServer;
+    }
+}
@@ -0,0 +1,17 @@
+package com.banking.repository;
+
+import com.banking.entity.Checkpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Optional;
+
+public interface CheckpointRepository extends JpaRepository<Checkpoint, String> {
+
+    // Serialises a job across nodes for the length of the caller's transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Checkpoint c WHERE c.name = :name")
+    Optional<Checkpoint> findForUpdate(@Param("name") String name);
+}
@@ -1,10 +1,46 @@
 package com.banking.repository;
 
 import com.banking.entity.Transaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findByAccountIdOrderByCreatedAtDesc(Long accountId);
-    List<Transaction> findAllByOrderByCreatedAtDesc();
+
+    // Keyset pages: rows strictly after (beforeTime, beforeId) in (createdAt DESC, id DESC) order
+    @Transactional(readOnly = true)
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+           "AND t.createdAt >= :from " +
+           "AND (t.createdAt < :beforeTime OR (t.createdAt = :beforeTime AND t.id < :beforeId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPageByAccountId(@Param("accountId") Long accountId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("beforeTime") LocalDateTime beforeTime,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable limit);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.account WHERE t.createdAt >= :from " +
+           "AND (t.createdAt < :beforeTime OR (t.createdAt = :beforeTime AND t.id < :beforeId)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findPage(@Param("from") LocalDateTime from,
+                               @Param("beforeTime") LocalDateTime beforeTime,
+                               @Param("beforeId") Long beforeId,
+                               Pageable limit);
+
+    // Net change over (from, asOf]: credits add, debits subtract
+    @Transactional(readOnly = true)
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType IN (com.banking.entity.Transaction.TransactionType.DEPOSIT, " +
+           "com.banking.entity.Transaction.TransactionType.TRANSFER_IN) THEN t.amount ELSE -t.amount END), 0) " +
+           "FROM Transaction t WHERE t.account.id = :accountId AND t.createdAt >= :from AND t.createdAt <= :asOf")
+    BigDecimal sumSignedAmounts(@Param("accountId") Long accountId,
+                                @Param("from") LocalDateTime from,
+                                @Param("asOf") LocalDateTime asOf);
+
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t")
+    LocalDateTime findEarliestCreatedAt();
 }
@@ -0,0 +1,9 @@
+package com.banking.repository;
+
+import com.banking.entity.UnappliedPosting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface UnappliedPostingRepository extends JpaRepository<UnappliedPosting, Long> {
+    List<UnappliedPosting> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,19 @@
+package com.banking.repository;
+
+import com.banking.entity.UserRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserRevocationRepository extends JpaRepository<UserRevocation, Long> {
+    List<UserRevocation> findByRevokedAtGreaterThanEqual(LocalDateTime since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserRevocation r WHERE r.revokedAt < :cutoff")
+    int deleteRevokedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,23 +1,44 @@
 package com.banking.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
-@RequiredArgsConstructor
+@Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
+    // When true the principal is built from the token claims alone, without a user lookup
+    private final boolean statelessAuth;
+    private final Counter invalidTokens;
+    private final Counter revokedTokens;
+
+    public JwtAuthFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                         TokenRevocationService revocationService, boolean statelessAuth,
+                         MeterRegistry meterRegistry) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.revocationService = revocationService;
+        this.statelessAuth = statelessAuth;
+        this.invalidTokens = Counter.builder("banking.auth.tokens.rejected").tag("reason", "invalid").register(meterRegistry);
+        this.revokedTokens = Counter.builder("banking.auth.tokens.rejected").tag("reason", "revoked").register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -25,40 +46,51 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String username = null;
-        String jwt = null;
+        JwtClaims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-
             try {
-                username = jwtUtil.extractUsername(jwt);
+                claims = jwtUtil.parseToken(authHeader.substring(7));
+                if (revocationService.isRevoked(claims)) {
+                    revokedTokens.increment();
+                    claims = null;
+                }
             } catch (Exception e) {
-                System.out.println("Invalid JWT Token");
+                // Expired tokens are routine, so only the counter is visible at the default level
+                invalidTokens.increment();
+                log.debug("Rejected JWT on {} {}: {}", request.getMethod(), request.getRequestURI(), e.toString());
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            UserDetails userDetails = statelessAuth
+                    ? toUserDetails(claims)
+                    : userDetailsService.loadUserByUsername(claims.getUsername());
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
 
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource().buildDetails(request)
+            );
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+            request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE, claims);
         }
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private UserDetails toUserDetails(JwtClaims claims) {
+        return new User(
+                claims.getUsername(),
+                "",
+                List.of(new SimpleGrantedAuthority("ROLE_" + claims.getRole()))
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.banking.security;
+
+import lombok.Value;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have already been verified.
+ * Built once per request by {@link JwtAuthFilter} and exposed to controllers
+ * as the {@link #REQUEST_ATTRIBUTE} request attribute.
+ */
+@Value
+public class JwtClaims {
+
+    public static final String REQUEST_ATTRIBUTE = JwtClaims.class.getName();
+
+    String username;
+    Long userId;
+    String role;
+    Date issuedAt;
+    Date expiresAt;
+
+    public boolean isExpired() {
+        return expiresAt.before(new Date());
+    }
+}
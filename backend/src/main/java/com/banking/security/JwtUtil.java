@@ -1,15 +1,23 @@
 package com.banking.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -21,15 +29,58 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${banking.pin.session-ttl-ms:300000}")
+    private long pinSessionTtlMs;
+
+    private Key signingKey;
+    private JwtParser parser;
+    // PIN sessions are signed with a key of their own, so they are never accepted as access tokens or vice versa
+    private Key pinSessionKey;
+    private JwtParser pinSessionParser;
+
+    // Verified tokens, each evicted at its own "exp"
+    private Cache<String, JwtClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        pinSessionKey = Keys.hmacShaKeyFor(sha256(secret + ":pin-session"));
+        pinSessionParser = Jwts.parserBuilder().setSigningKey(pinSessionKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtClaims>() {
+                    @Override
+                    public long expireAfterCreate(String token, JwtClaims claims, long currentTime) {
+                        long millisLeft = claims.getExpiresAt().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, JwtClaims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(UserDetails userDetails, Long userId, String role) {
+        return generateToken(userDetails.getUsername(), userId, role);
+    }
+
+    public String generateToken(String username, Long userId, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("role", role);
-        return createToken(claims, userDetails.getUsername());
+        return createToken(claims, username);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -38,20 +89,70 @@ public class JwtUtil {
                 .setSubject(subject)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Short-lived proof that {@code userId} entered the PIN of {@code accountNumber}.
+     */
+    public String generatePinSessionToken(Long userId, String accountNumber) {
+        return Jwts.builder()
+                .setSubject(accountNumber)
+                .claim("userId", userId)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + pinSessionTtlMs))
+                .signWith(pinSessionKey, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public boolean isValidPinSession(String token, Long userId, String accountNumber) {
+        try {
+            Claims claims = pinSessionParser.parseClaimsJws(token).getBody();
+            return accountNumber.equals(claims.getSubject()) && userId != null
+                    && userId.equals(claims.get("userId", Long.class));
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public long getPinSessionTtlMs() {
+        return pinSessionTtlMs;
+    }
+
+    /**
+     * Verifies the token and returns its claims. A token seen before is served
+     * from the cache without repeating the signature check.
+     *
+     * @throws JwtException if the signature is invalid or the token has expired
+     */
+    public JwtClaims parseToken(String token) {
+        JwtClaims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        Claims claims = extractAllClaims(token);
+        JwtClaims verified = new JwtClaims(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("role", String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration()
+        );
+        verifiedTokens.put(token, verified);
+        return verified;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getUsername();
     }
 
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+        return parseToken(token).getUserId();
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return parseToken(token).getRole();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -60,19 +161,19 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    public boolean validateToken(String token, UserDetails userDetails) {
+        final JwtClaims claims = parseToken(token);
+        return (claims.getUsername().equals(userDetails.getUsername()) && !claims.isExpired());
     }
 }
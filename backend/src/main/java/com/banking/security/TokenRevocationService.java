@@ -0,0 +1,89 @@
+package com.banking.security;
+
+import com.banking.entity.UserRevocation;
+import com.banking.repository.UserRevocationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist of users whose outstanding tokens must no longer be
+ * accepted. Every token issued to a listed user up to the moment of
+ * revocation is rejected; the user has to log in again.
+ *
+ * Local revocations take effect immediately. Revocations made on other nodes
+ * are picked up by polling the rows revoked since the latest one seen, less
+ * an overlap window: a row can commit after rows stamped later than it, on
+ * this node's clock or another's. Rows already seen are skipped by id.
+ * Entries older than the token lifetime are dropped, since every token they
+ * could match has expired on its own.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    private final UserRevocationRepository revocationRepository;
+
+    @Value("${jwt.expiration}")
+    private Long expiration;
+
+    @Value("${jwt.revocation.overlap-ms:60000}")
+    private long overlapMs;
+
+    private final Map<Long, LocalDateTime> revokedUntil = new ConcurrentHashMap<>();
+    // Rows read by polling, by id, until they fall behind the overlap window
+    private final Map<Long, LocalDateTime> seen = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSeenAt = EARLIEST;
+
+    public void revoke(Long userId) {
+        UserRevocation revocation = revocationRepository.save(
+                UserRevocation.builder().userId(userId).build());
+        remember(revocation);
+    }
+
+    public boolean isRevoked(JwtClaims claims) {
+        LocalDateTime revokedAt = revokedUntil.get(claims.getUserId());
+        if (revokedAt == null) return false;
+        // "iat" only has second precision
+        LocalDateTime issuedAt = toLocal(claims.getIssuedAt());
+        return !issuedAt.isAfter(revokedAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:5000}")
+    public void refresh() {
+        LocalDateTime since = lastSeenAt.minus(overlapMs, ChronoUnit.MILLIS);
+        for (UserRevocation revocation : revocationRepository.findByRevokedAtGreaterThanEqual(since)) {
+            if (seen.putIfAbsent(revocation.getId(), revocation.getRevokedAt()) != null) continue;
+            remember(revocation);
+            if (revocation.getRevokedAt().isAfter(lastSeenAt)) lastSeenAt = revocation.getRevokedAt();
+        }
+        seen.values().removeIf(revokedAt -> revokedAt.isBefore(since));
+        LocalDateTime cutoff = LocalDateTime.now().minus(expiration, ChronoUnit.MILLIS);
+        revokedUntil.values().removeIf(revokedAt -> revokedAt.isBefore(cutoff));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:3600000}")
+    public void purge() {
+        revocationRepository.deleteRevokedBefore(
+                LocalDateTime.now().minus(expiration, ChronoUnit.MILLIS));
+    }
+
+    private void remember(UserRevocation revocation) {
+        revokedUntil.merge(revocation.getUserId(), revocation.getRevokedAt(),
+                (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
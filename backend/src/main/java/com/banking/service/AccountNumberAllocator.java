@@ -0,0 +1,10 @@
+package com.banking.service;
+
+/**
+ * Source of new account numbers, selected with
+ * {@code banking.account-number.allocator} ({@code block} or {@code random}).
+ * Numbers are in the {@link AccountNumbers} format.
+ */
+public interface AccountNumberAllocator {
+    String next();
+}
@@ -0,0 +1,53 @@
+package com.banking.service;
+
+/**
+ * Account number format. Numbers issued by an {@link AccountNumberAllocator}
+ * are 12 digits: an 11-digit sequence followed by a Luhn check digit, so a
+ * single mistyped digit or swapped pair is caught without a database lookup.
+ * 10-digit numbers issued before check digits were introduced are still
+ * accepted as they are.
+ */
+public final class AccountNumbers {
+
+    public static final int LENGTH = 12;
+    private static final int LEGACY_LENGTH = 10;
+
+    private AccountNumbers() {
+    }
+
+    public static String withCheckDigit(long base) {
+        String digits = Long.toString(base);
+        return digits + checkDigit(digits);
+    }
+
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null) return false;
+        for (int i = 0; i < accountNumber.length(); i++) {
+            if (!Character.isDigit(accountNumber.charAt(i))) return false;
+        }
+        if (accountNumber.length() == LEGACY_LENGTH) return true;
+        if (accountNumber.length() != LENGTH) return false;
+        String base = accountNumber.substring(0, LENGTH - 1);
+        return accountNumber.charAt(LENGTH - 1) == checkDigit(base);
+    }
+
+    public static void requireValid(String accountNumber) {
+        if (!isValid(accountNumber)) throw new RuntimeException("Invalid account number");
+    }
+
+    // Luhn: double every second digit from the right, starting with the rightmost
+    private static char checkDigit(String digits) {
+        int sum = 0;
+        boolean doubleIt = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int d = digits.charAt(i) - '0';
+            if (doubleIt) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+            doubleIt = !doubleIt;
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
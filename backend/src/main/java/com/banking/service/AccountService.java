@@ -4,146 +4,374 @@ import com.banking.dto.AccountDTO;
 import com.banking.entity.BankAccount;
 import com.banking.entity.Transaction;
 import com.banking.entity.User;
+import com.banking.repository.AccountBalanceShardRepository;
 import com.banking.repository.BankAccountRepository;
 import com.banking.repository.BankRepository;
 import com.banking.repository.TransactionRepository;
 import com.banking.repository.UserRepository;
+import com.banking.security.JwtUtil;
+import com.banking.service.PostingMetrics.Operation;
+import com.banking.service.PostingMetrics.Reason;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("banking.service")
 public class AccountService {
 
     private final BankAccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final BankRepository bankRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PinVerifier pinVerifier;
+    private final JwtUtil jwtUtil;
+    private final DashboardAggregates dashboardAggregates;
+    private final PostingExecutor postingExecutor;
+    private final ShardedBalanceService shardedBalances;
+    private final AccountBalanceShardRepository shardRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final BalanceCache balanceCache;
+    private final ReadYourWrites readYourWrites;
+    private final PostingMetrics postingMetrics;
+    private final SingleFlight<String, AccountDTO.TransactionPage> transactionPageLoads;
+    // Present only with banking.journal.enabled=true
+    private final ObjectProvider<PostingJournal> postingJournal;
+    private final PlatformTransactionManager transactionManager;
+
+    // Transaction pages, loaded in one read-only transaction (a replica, when configured)
+    private TransactionTemplate readOnlyTransaction;
+
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Value("${banking.transactions.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${banking.transactions.max-page-size:200}")
+    private int maxPageSize;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
 
     @Transactional
     public AccountDTO.AccountResponse createAccount(AccountDTO.CreateAccountRequest request) {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        BigDecimal initialDeposit = request.getInitialDeposit() != null && request.getInitialDeposit().signum() > 0
+                ? request.getInitialDeposit() : BigDecimal.ZERO;
+
         BankAccount account = BankAccount.builder()
-                .accountNumber(generateAccountNumber())
+                .accountNumber(accountNumberAllocator.next())
                 .user(user)
                 .bank(request.getBankId() != null ? bankRepository.findById(request.getBankId()).orElse(null) : null)
                 .name(request.getName())
                 .address(request.getAddress())
                 .phoneNumber(request.getPhoneNumber())
-                .pinHash(request.getPin() != null ? passwordEncoder.encode(request.getPin()) : null)
+                .pinHash(request.getPin() != null ? pinVerifier.encode(request.getPin()) : null)
                 .accountType(request.getAccountType() != null ? request.getAccountType() : BankAccount.AccountType.SAVINGS)
-                .balance(BigDecimal.ZERO)
+                .balance(initialDeposit)
                 .isActive(true)
                 .build();
 
+        // Opening balance is set up front, so each row is inserted once and nothing is updated
         BankAccount saved = accountRepository.save(account);
 
-        // Initial deposit if provided
-        if (request.getInitialDeposit() != null && request.getInitialDeposit().compareTo(BigDecimal.ZERO) > 0) {
-            saved.setBalance(request.getInitialDeposit());
-            accountRepository.save(saved);
+        if (initialDeposit.signum() > 0) {
             Transaction txn = Transaction.builder()
                     .account(saved)
                     .transactionType(Transaction.TransactionType.DEPOSIT)
-                    .amount(request.getInitialDeposit())
-                    .balanceAfter(request.getInitialDeposit())
+                    .amount(initialDeposit)
+                    .balanceAfter(initialDeposit)
                     .description("Initial deposit")
                     .build();
             transactionRepository.save(txn);
         }
+        dashboardAggregates.accountOpened(initialDeposit, initialDeposit.signum() > 0);
 
         return toResponse(saved);
     }
 
-    @Transactional
     public AccountDTO.TransactionResponse deposit(AccountDTO.TransactionRequest request, Long performedBy) {
-        BankAccount account = accountRepository.findByAccountNumber(request.getAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+        AccountNumbers.requireValid(request.getAccountNumber());
+        PostingJournal journal = postingJournal.getIfAvailable();
+        if (journal != null) return journal.deposit(request, performedBy);
+        // Sharded accounts take deposits on their slots, so same-account deposits need not queue on the lock
+        if (shardedBalances.isSharded(request.getAccountNumber())) {
+            return postingExecutor.executeWithoutLock(() -> applyDeposit(request, performedBy));
+        }
+        return postingExecutor.execute(request.getAccountNumber(), () -> applyDeposit(request, performedBy));
+    }
 
-        if (!account.getIsActive()) throw new RuntimeException("Account is not active");
+    private AccountDTO.TransactionResponse applyDeposit(AccountDTO.TransactionRequest request, Long performedBy) {
         if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) throw new RuntimeException("Amount must be positive");
 
-        account.setBalance(account.getBalance().add(request.getAmount()));
-        accountRepository.save(account);
-
-        Transaction txn = Transaction.builder()
-                .account(account)
-                .transactionType(Transaction.TransactionType.DEPOSIT)
-                .amount(request.getAmount())
-                .balanceAfter(account.getBalance())
-                .description(request.getDescription())
-                .performedBy(performedBy)
-                .build();
-        transactionRepository.save(txn);
+        BankAccountRepository.PostedBalance posted = shardedBalances.credit(request.getAccountNumber(), request.getAmount())
+                .or(() -> accountRepository.credit(request.getAccountNumber(), request.getAmount()))
+                .orElseThrow(() -> postingFailure(request, Operation.DEPOSIT));
 
-        return toTransactionResponse(txn);
+        dashboardAggregates.posted(request.getAmount());
+        postingMetrics.postedAfterCommit(Operation.DEPOSIT, request.getAmount());
+        balanceCache.invalidateAfterCommit(request.getAccountNumber());
+        readYourWrites.pinAfterCommit(performedBy);
+        return recordPosting(posted, Transaction.TransactionType.DEPOSIT, request, performedBy);
     }
 
-    @Transactional
     public AccountDTO.TransactionResponse withdraw(AccountDTO.TransactionRequest request, Long performedBy) {
-        BankAccount account = accountRepository.findByAccountNumber(request.getAccountNumber())
-                .orElseThrow(() -> new RuntimeException("Account not found"));
+        return withdraw(request, performedBy, false);
+    }
+
+    /**
+     * A customer withdrawal must come from the account owner and carry the PIN
+     * or a PIN session; a staff withdrawal needs neither, but a PIN that is
+     * given is still checked.
+     */
+    public AccountDTO.TransactionResponse withdraw(AccountDTO.TransactionRequest request, Long performedBy,
+                                                   boolean customer) {
+        AccountNumbers.requireValid(request.getAccountNumber());
+        // Checked before taking the account lock
+        authorize(request.getAccountNumber(), request.getPin(), request.getPinSession(), performedBy, customer,
+                Operation.WITHDRAWAL);
+        PostingJournal journal = postingJournal.getIfAvailable();
+        if (journal != null) return journal.withdraw(request, performedBy);
+        return postingExecutor.execute(request.getAccountNumber(), () -> applyWithdraw(request, performedBy));
+    }
 
-        if (!account.getIsActive()) throw new RuntimeException("Account is not active");
+    private AccountDTO.TransactionResponse applyWithdraw(AccountDTO.TransactionRequest request, Long performedBy) {
         if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) throw new RuntimeException("Amount must be positive");
 
-        // Verify PIN for client withdrawals
-        if (request.getPin() != null && !passwordEncoder.matches(request.getPin(), account.getPinHash())) {
-            throw new RuntimeException("Invalid PIN");
+        BankAccountRepository.PostedBalance posted = shardedBalances.isSharded(request.getAccountNumber())
+                ? shardedBalances.debit(request.getAccountNumber(), request.getAmount())
+                : accountRepository.debit(request.getAccountNumber(), request.getAmount())
+                        .orElseThrow(() -> postingFailure(request, Operation.WITHDRAWAL));
+
+        dashboardAggregates.posted(request.getAmount().negate());
+        postingMetrics.postedAfterCommit(Operation.WITHDRAWAL, request.getAmount());
+        balanceCache.invalidateAfterCommit(request.getAccountNumber());
+        readYourWrites.pinAfterCommit(performedBy);
+        return recordPosting(posted, Transaction.TransactionType.WITHDRAW, request, performedBy);
+    }
+
+    /**
+     * Moves money between two accounts in one transaction. Both accounts are
+     * locked in-process and then in the database in account-id order, so
+     * opposite transfers between the same pair cannot deadlock; a deadlock
+     * with other writers is retried by the {@link PostingExecutor}.
+     */
+    public AccountDTO.TransferResponse transfer(AccountDTO.TransferRequest request, Long performedBy) {
+        return transfer(request, performedBy, false);
+    }
+
+    /**
+     * As {@link #transfer(AccountDTO.TransferRequest, Long)}; a customer must
+     * own the source account and give the PIN or a PIN session.
+     */
+    public AccountDTO.TransferResponse transfer(AccountDTO.TransferRequest request, Long performedBy,
+                                                boolean customer) {
+        AccountNumbers.requireValid(request.getFromAccountNumber());
+        AccountNumbers.requireValid(request.getToAccountNumber());
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            throw new RuntimeException("Cannot transfer to the same account");
         }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) throw new RuntimeException("Amount must be positive");
+        authorize(request.getFromAccountNumber(), request.getPin(), request.getPinSession(), performedBy, customer,
+                Operation.TRANSFER);
+        return postingExecutor.execute(List.of(request.getFromAccountNumber(), request.getToAccountNumber()),
+                () -> applyTransfer(request, performedBy));
+    }
 
-        if (account.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new RuntimeException("Insufficient balance");
+    private AccountDTO.TransferResponse applyTransfer(AccountDTO.TransferRequest request, Long performedBy) {
+        Map<String, BankAccount> accounts = accountRepository
+                .findAllForUpdate(List.of(request.getFromAccountNumber(), request.getToAccountNumber())).stream()
+                .collect(Collectors.toMap(BankAccount::getAccountNumber, Function.identity()));
+        BankAccount from = accounts.get(request.getFromAccountNumber());
+        BankAccount to = accounts.get(request.getToAccountNumber());
+        if (from == null || to == null) throw postingMetrics.rejected(Operation.TRANSFER, Reason.NOT_FOUND);
+        if (!from.getIsActive() || !to.getIsActive()) throw postingMetrics.rejected(Operation.TRANSFER, Reason.INACTIVE);
+        for (BankAccount account : accounts.values()) {
+            if (account.getBalanceShards() != null && account.getBalanceShards() > 0) shardedBalances.fold(account);
         }
 
-        account.setBalance(account.getBalance().subtract(request.getAmount()));
-        accountRepository.save(account);
+        // Journaled withdrawals already acknowledged still count against the source account
+        PostingJournal journal = postingJournal.getIfAvailable();
+        BigDecimal available = journal != null
+                ? from.getBalance().subtract(journal.pendingDebits(from.getAccountNumber())) : from.getBalance();
+        if (available.compareTo(request.getAmount()) < 0) {
+            throw postingMetrics.rejected(Operation.TRANSFER, Reason.INSUFFICIENT_BALANCE);
+        }
 
-        Transaction txn = Transaction.builder()
+        from.setBalance(from.getBalance().subtract(request.getAmount()));
+        to.setBalance(to.getBalance().add(request.getAmount()));
+
+        String correlationId = UUID.randomUUID().toString();
+        Transaction debit = transferLeg(from, Transaction.TransactionType.TRANSFER_OUT, request, correlationId, performedBy);
+        Transaction credit = transferLeg(to, Transaction.TransactionType.TRANSFER_IN, request, correlationId, performedBy);
+        transactionRepository.saveAll(List.of(debit, credit));
+
+        dashboardAggregates.posted(2, BigDecimal.ZERO);
+        postingMetrics.postedAfterCommit(Operation.TRANSFER, request.getAmount());
+        balanceCache.invalidateAfterCommit(accounts.keySet());
+        readYourWrites.pinAfterCommit(performedBy);
+
+        AccountDTO.TransferResponse response = new AccountDTO.TransferResponse();
+        response.setCorrelationId(correlationId);
+        response.setDebit(toTransactionResponse(debit, from.getAccountNumber()));
+        response.setCredit(toTransactionResponse(credit, to.getAccountNumber()));
+        return response;
+    }
+
+    private static Transaction transferLeg(BankAccount account, Transaction.TransactionType type,
+                                           AccountDTO.TransferRequest request, String correlationId, Long performedBy) {
+        return Transaction.builder()
                 .account(account)
-                .transactionType(Transaction.TransactionType.WITHDRAW)
+                .transactionType(type)
                 .amount(request.getAmount())
                 .balanceAfter(account.getBalance())
                 .description(request.getDescription())
                 .performedBy(performedBy)
+                .correlationId(correlationId)
+                .build();
+    }
+
+    private AccountDTO.TransactionResponse recordPosting(BankAccountRepository.PostedBalance posted,
+                                                        Transaction.TransactionType type,
+                                                        AccountDTO.TransactionRequest request, Long performedBy) {
+        Transaction txn = Transaction.builder()
+                .account(accountRepository.getReferenceById(posted.getAccountId()))
+                .transactionType(type)
+                .amount(request.getAmount())
+                .balanceAfter(posted.getBalance())
+                .description(request.getDescription())
+                .performedBy(performedBy)
                 .build();
         transactionRepository.save(txn);
+        return toTransactionResponse(txn, request.getAccountNumber());
+    }
 
-        return toTransactionResponse(txn);
+    // Only runs once the conditional update matched no row, to tell the caller why
+    private RuntimeException postingFailure(AccountDTO.TransactionRequest request, Operation operation) {
+        BankAccount account = accountRepository.findByAccountNumber(request.getAccountNumber()).orElse(null);
+        if (account == null) return postingMetrics.rejected(operation, Reason.NOT_FOUND);
+        if (!account.getIsActive()) return postingMetrics.rejected(operation, Reason.INACTIVE);
+        return postingMetrics.rejected(operation, Reason.INSUFFICIENT_BALANCE);
     }
 
-    public AccountDTO.BalanceResponse getBalance(String accountNumber) {
-        BankAccount account = accountRepository.findByAccountNumber(accountNumber)
+    /**
+     * A PIN session, when given, stands in for the PIN. Customers must own the
+     * account and give one or the other; staff postings may give neither.
+     */
+    private void authorize(String accountNumber, String pin, String pinSession, Long userId, boolean customer,
+                           Operation operation) {
+        if (customer) {
+            if (pin == null && pinSession == null) throw postingMetrics.rejected(operation, Reason.PIN_REQUIRED);
+            requireOwner(accountNumber, userId, operation);
+        }
+        if (pinSession != null) {
+            if (!jwtUtil.isValidPinSession(pinSession, userId, accountNumber)) {
+                throw postingMetrics.rejected(operation, Reason.INVALID_PIN_SESSION);
+            }
+            return;
+        }
+        if (pin != null) verifyPin(accountNumber, pin, operation);
+    }
+
+    /**
+     * For reads by a customer: fails unless the account belongs to {@code userId}.
+     */
+    public void requireOwner(String accountNumber, Long userId) {
+        Long ownerId = accountRepository.findOwnerIdByAccountNumber(accountNumber)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (!ownerId.equals(userId)) throw new RuntimeException("Account does not belong to the caller");
+    }
+
+    private void requireOwner(String accountNumber, Long userId, Operation operation) {
+        Long ownerId = accountRepository.findOwnerIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> postingMetrics.rejected(operation, Reason.NOT_FOUND));
+        if (!ownerId.equals(userId)) throw postingMetrics.rejected(operation, Reason.NOT_OWNER);
+    }
+
+    private void verifyPin(String accountNumber, String pin, Operation operation) {
+        String pinHash = accountRepository.findPinHashByAccountNumber(accountNumber).orElse(null);
+        if (!pinVerifier.matches(pin, pinHash)) {
+            throw postingMetrics.rejected(operation, Reason.INVALID_PIN);
+        }
+    }
+
+    /**
+     * Checks the PIN once and returns a token that authorizes the caller's
+     * withdrawals and transfers from this account until it expires.
+     */
+    public AccountDTO.PinSessionResponse startPinSession(AccountDTO.PinSessionRequest request, Long userId,
+                                                         boolean customer) {
+        AccountNumbers.requireValid(request.getAccountNumber());
+        if (customer) requireOwner(request.getAccountNumber(), userId, Operation.PIN_SESSION);
+        verifyPin(request.getAccountNumber(), request.getPin(), Operation.PIN_SESSION);
+        AccountDTO.PinSessionResponse response = new AccountDTO.PinSessionResponse();
+        response.setPinSession(jwtUtil.generatePinSessionToken(userId, request.getAccountNumber()));
+        response.setExpiresInSeconds(jwtUtil.getPinSessionTtlMs() / 1000);
+        return response;
+    }
+
+    public AccountDTO.BalanceResponse getBalance(String accountNumber) {
+        AccountNumbers.requireValid(accountNumber);
+        BalanceCache.CachedBalance cached = balanceCache.get(accountNumber);
+        if (cached == null) throw new RuntimeException("Account not found");
         AccountDTO.BalanceResponse response = new AccountDTO.BalanceResponse();
-        response.setAccountNumber(account.getAccountNumber());
-        response.setBalance(account.getBalance());
-        response.setName(account.getName());
+        response.setAccountNumber(cached.accountNumber());
+        response.setBalance(cached.balance());
+        response.setName(cached.name());
         return response;
     }
 
-    public List<AccountDTO.TransactionResponse> getTransactions(String accountNumber) {
-        BankAccount account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-        return transactionRepository.findByAccountIdOrderByCreatedAtDesc(account.getId())
-                .stream().map(this::toTransactionResponse).collect(Collectors.toList());
+    /**
+     * Identical concurrent requests share one load. Only the load itself runs
+     * in a (read-only) transaction, so that callers waiting on a shared load
+     * do not hold a connection.
+     */
+    public AccountDTO.TransactionPage getTransactions(String accountNumber, AccountDTO.TransactionQuery query) {
+        AccountNumbers.requireValid(accountNumber);
+        TransactionCursor after = startOf(query);
+        int limit = pageSize(query);
+        LocalDateTime from = query.getFrom() != null ? query.getFrom() : EARLIEST;
+        // The generation keeps callers off a load that started before their own posting committed
+        String key = accountNumber + '|' + balanceCache.generation(accountNumber) + '|' + after.encode()
+                + '|' + limit + '|' + from;
+        return transactionPageLoads.execute(key, () -> readOnlyTransaction.execute(status -> {
+            Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new RuntimeException("Account not found"));
+            List<Transaction> rows = transactionRepository.findPageByAccountId(accountId, from,
+                    after.getCreatedAt(), after.getId(), PageRequest.of(0, limit + 1));
+            return toPage(rows, limit, txn -> toTransactionResponse(txn, accountNumber));
+        }));
     }
 
+    @Transactional(readOnly = true)
     public List<AccountDTO.AccountResponse> getAllAccounts() {
-        return accountRepository.findAll().stream().map(this::toResponse).collect(Collectors.toList());
+        return accountRepository.findAllWithBank().stream().map(this::toResponse).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<AccountDTO.AccountResponse> getAccountsByUser(Long userId) {
         return accountRepository.findByUserId(userId).stream().map(this::toResponse).collect(Collectors.toList());
     }
@@ -152,8 +380,12 @@ public class AccountService {
     public void deleteAccount(Long accountId) {
         BankAccount account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
+        if (Boolean.TRUE.equals(account.getIsActive())) {
+            dashboardAggregates.accountDeactivated(shardedBalances.totalBalance(account));
+        }
         account.setIsActive(false);
         accountRepository.save(account);
+        balanceCache.invalidateAfterCommit(account.getAccountNumber());
     }
 
     @Transactional
@@ -163,42 +395,64 @@ public class AccountService {
         if (request.getName() != null) account.setName(request.getName());
         if (request.getAddress() != null) account.setAddress(request.getAddress());
         if (request.getPhoneNumber() != null) account.setPhoneNumber(request.getPhoneNumber());
+        balanceCache.invalidateAfterCommit(account.getAccountNumber());
         return toResponse(accountRepository.save(account));
     }
 
     @Transactional
     public void setPin(AccountDTO.SetPinRequest request) {
+        AccountNumbers.requireValid(request.getAccountNumber());
         BankAccount account = accountRepository.findByAccountNumber(request.getAccountNumber())
                 .orElseThrow(() -> new RuntimeException("Account not found"));
-        account.setPinHash(passwordEncoder.encode(request.getNewPin()));
+        account.setPinHash(pinVerifier.encode(request.getNewPin()));
         accountRepository.save(account);
     }
 
-    public List<AccountDTO.TransactionResponse> getAllTransactions() {
-        return transactionRepository.findAllByOrderByCreatedAtDesc()
-                .stream().map(this::toTransactionResponse).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public AccountDTO.TransactionPage getAllTransactions(AccountDTO.TransactionQuery query) {
+        TransactionCursor after = startOf(query);
+        int limit = pageSize(query);
+        List<Transaction> rows = transactionRepository.findPage(
+                query.getFrom() != null ? query.getFrom() : EARLIEST,
+                after.getCreatedAt(), after.getId(), PageRequest.of(0, limit + 1));
+        return toPage(rows, limit, this::toTransactionResponse);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal getTotalBalance() {
         BigDecimal total = accountRepository.getTotalBalance();
-        return total != null ? total : BigDecimal.ZERO;
+        return (total != null ? total : BigDecimal.ZERO).add(shardRepository.getTotalActiveBalance());
+    }
+
+    private TransactionCursor startOf(AccountDTO.TransactionQuery query) {
+        if (query.getCursor() != null) return TransactionCursor.decode(query.getCursor());
+        return new TransactionCursor(query.getTo() != null ? query.getTo() : LATEST, Long.MIN_VALUE);
+    }
+
+    private int pageSize(AccountDTO.TransactionQuery query) {
+        if (query.getLimit() == null || query.getLimit() <= 0) return defaultPageSize;
+        return Math.min(query.getLimit(), maxPageSize);
     }
 
-    private String generateAccountNumber() {
-        Random random = new Random();
-        String number;
-        do {
-            number = String.format("%010d", (long)(random.nextDouble() * 9_999_999_999L));
-        } while (accountRepository.existsByAccountNumber(number));
-        return number;
+    // Fetched one row past the limit to learn whether another page exists
+    private AccountDTO.TransactionPage toPage(List<Transaction> rows, int limit,
+                                              Function<Transaction, AccountDTO.TransactionResponse> mapper) {
+        AccountDTO.TransactionPage page = new AccountDTO.TransactionPage();
+        List<Transaction> items = rows.size() > limit ? rows.subList(0, limit) : rows;
+        page.setItems(items.stream().map(mapper).collect(Collectors.toList()));
+        if (rows.size() > limit) {
+            Transaction last = items.get(items.size() - 1);
+            page.setNextCursor(new TransactionCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+        return page;
     }
 
-    private AccountDTO.AccountResponse toResponse(BankAccount account) {
+    AccountDTO.AccountResponse toResponse(BankAccount account) {
         AccountDTO.AccountResponse r = new AccountDTO.AccountResponse();
         r.setId(account.getId());
         r.setAccountNumber(account.getAccountNumber());
         r.setName(account.getName());
-        r.setBalance(account.getBalance());
+        r.setBalance(shardedBalances.totalBalance(account));
         r.setAccountType(account.getAccountType());
         r.setIsActive(account.getIsActive());
         r.setBankName(account.getBank() != null ? account.getBank().getBankName() : null);
@@ -207,6 +461,10 @@ public class AccountService {
     }
 
     private AccountDTO.TransactionResponse toTransactionResponse(Transaction txn) {
+        return toTransactionResponse(txn, txn.getAccount().getAccountNumber());
+    }
+
+    AccountDTO.TransactionResponse toTransactionResponse(Transaction txn, String accountNumber) {
         AccountDTO.TransactionResponse r = new AccountDTO.TransactionResponse();
         r.setId(txn.getId());
         r.setTransactionType(txn.getTransactionType().name());
@@ -214,7 +472,8 @@ public class AccountService {
         r.setBalanceAfter(txn.getBalanceAfter());
         r.setDescription(txn.getDescription());
         r.setCreatedAt(txn.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        r.setAccountNumber(txn.getAccount().getAccountNumber());
+        r.setAccountNumber(accountNumber);
+        r.setCorrelationId(txn.getCorrelationId());
         return r;
     }
 }
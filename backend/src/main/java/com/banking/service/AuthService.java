@@ -4,33 +4,45 @@ import com.banking.dto.AuthDTO;
 import com.banking.entity.User;
 import com.banking.repository.UserRepository;
 import com.banking.security.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Timed("banking.service")
 public class AuthService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
     private final JwtUtil jwtUtil;
 
+    // Verified against when the username is unknown, so both cases cost one BCrypt check
+    private String dummyPasswordHash;
+
+    @Transactional
     public AuthDTO.LoginResponse login(AuthDTO.LoginRequest request) {
-        authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-        );
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String token = jwtUtil.generateToken(userDetails, user.getId(), user.getRole().name());
-        return new AuthDTO.LoginResponse(token, user.getRole().name(), user.getId(), user.getName());
+        User user = userRepository.findByUsername(request.getUsername()).orElse(null);
+        if (user == null) {
+            passwordEncoder.matches(request.getPassword(), dummyPasswordHash());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        return issueTokens(user);
+    }
+
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public AuthDTO.LoginResponse refresh(AuthDTO.RefreshRequest request) {
+        Long userId = refreshTokenService.consume(request.getRefreshToken());
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BadCredentialsException("User no longer exists"));
+        return issueTokens(user);
     }
 
     public User register(AuthDTO.RegisterRequest request) {
@@ -47,4 +59,17 @@ public class AuthService {
                 .build();
         return userRepository.save(user);
     }
+
+    private AuthDTO.LoginResponse issueTokens(User user) {
+        String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole().name());
+        String refreshToken = refreshTokenService.issue(user.getId());
+        return new AuthDTO.LoginResponse(token, refreshToken, user.getRole().name(), user.getId(), user.getName());
+    }
+
+    private String dummyPasswordHash() {
+        if (dummyPasswordHash == null) {
+            dummyPasswordHash = passwordEncoder.encode("dummy-password");
+        }
+        return dummyPasswordHash;
+    }
 }
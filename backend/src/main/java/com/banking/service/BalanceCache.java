@@ -0,0 +1,97 @@
+package com.banking.service;
+
+import com.banking.repository.BankAccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read-through cache behind balance lookups, bounded by size (W-TinyLFU
+ * eviction) and by a TTL that caps staleness from writes on other nodes.
+ * Misses are served by a projection query rather than the full account.
+ *
+ * Every write path invalidates the accounts it touched once its transaction
+ * commits. Concurrent misses on one account share a single load, keyed by the
+ * account's stripe generation so that a caller never joins a load that began
+ * before its own write committed. A load that overlaps an invalidation of its
+ * account drops what it cached: it re-checks the generation after the put,
+ * and invalidations bump the generation before removing the entry.
+ */
+@Component
+public class BalanceCache {
+
+    private final BankAccountRepository accountRepository;
+    private final Cache<String, CachedBalance> balances;
+    private final SingleFlight<String, CachedBalance> loads;
+    private final AtomicLongArray generations = new AtomicLongArray(1024);
+
+    public record CachedBalance(String accountNumber, String name, BigDecimal balance) {
+    }
+
+    public BalanceCache(BankAccountRepository accountRepository, SingleFlight<String, CachedBalance> loads,
+                        MeterRegistry meterRegistry,
+                        @Value("${banking.balance-cache.max-size:100000}") long maxSize,
+                        @Value("${banking.balance-cache.ttl-ms:30000}") long ttlMs) {
+        this.accountRepository = accountRepository;
+        this.loads = loads;
+        this.balances = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, balances, "balances");
+    }
+
+    /**
+     * Null if there is no such account; absence is not cached.
+     */
+    public CachedBalance get(String accountNumber) {
+        CachedBalance cached = balances.getIfPresent(accountNumber);
+        if (cached != null) return cached;
+        long generation = generation(accountNumber);
+        return loads.execute(accountNumber + '|' + generation, () -> load(accountNumber, generation));
+    }
+
+    /**
+     * Advances after every committed write to the account (and to the other
+     * accounts sharing its stripe).
+     */
+    public long generation(String accountNumber) {
+        return generations.get(stripeOf(accountNumber));
+    }
+
+    public void invalidateAfterCommit(String accountNumber) {
+        AfterCommit.run(() -> invalidate(accountNumber));
+    }
+
+    public void invalidateAfterCommit(Collection<String> accountNumbers) {
+        AfterCommit.run(() -> accountNumbers.forEach(this::invalidate));
+    }
+
+    private CachedBalance load(String accountNumber, long generation) {
+        CachedBalance loaded = accountRepository.findBalanceView(accountNumber)
+                .map(view -> new CachedBalance(view.getAccountNumber(), view.getName(), view.getBalance()))
+                .orElse(null);
+        if (loaded == null) return null;
+        balances.put(accountNumber, loaded);
+        if (generation(accountNumber) != generation) balances.invalidate(accountNumber);
+        return loaded;
+    }
+
+    private void invalidate(String accountNumber) {
+        generations.incrementAndGet(stripeOf(accountNumber));
+        balances.invalidate(accountNumber);
+    }
+
+    private int stripeOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), generations.length());
+    }
+}
@@ -0,0 +1,250 @@
+package com.banking.service;
+
+import com.banking.dto.AccountDTO;
+import com.banking.entity.BalanceSnapshot;
+import com.banking.entity.Checkpoint;
+import com.banking.entity.Transaction;
+import com.banking.repository.BalanceSnapshotRepository;
+import com.banking.repository.BankAccountRepository;
+import com.banking.repository.CheckpointRepository;
+import com.banking.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Daily balance snapshots for point-in-time and history queries.
+ *
+ * A scheduled job closes one day at a time, once the day has been over for
+ * {@code settle-ms}: it reads that day's transactions in (account, time)
+ * order and writes one open/min/max/close row per account that had activity.
+ * The last closed day is kept in the checkpoints table and advanced in the
+ * same transaction as the day's rows, so a failed run simply redoes the day.
+ *
+ * Journaled postings are written with their acknowledgement time, so a day
+ * is not closed while this node's journal still holds an unapplied posting
+ * acknowledged before the day ended.
+ *
+ * Balances come from {@code balance_after}, which holds the account's total
+ * after each posting, except for sharded accounts: concurrent slot deposits
+ * can record the same {@code balance_after}, so their balances are carried
+ * forward from the previous close by the posted amounts. A point-in-time
+ * lookup reads the latest snapshot before the requested day and at most the
+ * transactions after it.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceSnapshotService {
+
+    static final String CHECKPOINT = "balance-snapshots";
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    private static final String DAY_SQL =
+            "SELECT t.account_id, t.id, t.transaction_type, t.amount, t.balance_after, a.balance_shards " +
+            "FROM transactions t JOIN bank_accounts a ON a.id = t.account_id " +
+            "WHERE t.created_at >= ? AND t.created_at < ? ORDER BY t.account_id, t.created_at, t.id";
+
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final CheckpointRepository checkpointRepository;
+    private final BankAccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<PostingJournal> postingJournal;
+
+    @Value("${banking.snapshots.settle-ms:3600000}")
+    private long settleMs;
+
+    @Value("${banking.snapshots.max-days-per-run:31}")
+    private int maxDaysPerRun;
+
+    @Value("${banking.snapshots.max-history-days:731}")
+    private int maxHistoryDays;
+
+    @Value("${banking.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Scheduled(fixedDelayString = "${banking.snapshots.interval:300000}")
+    public void closeDays() {
+        for (int i = 0; i < maxDaysPerRun; i++) {
+            Boolean closed = transactionTemplate.execute(status -> closeNextDay());
+            if (!Boolean.TRUE.equals(closed)) return;
+        }
+    }
+
+    // Closes the day after the checkpoint if it has settled; false when there is nothing to do
+    private boolean closeNextDay() {
+        LocalDate day = checkpointRepository.findForUpdate(CHECKPOINT)
+                .map(c -> LocalDate.ofEpochDay(c.getValue()).plusDays(1))
+                .orElseGet(() -> {
+                    LocalDateTime earliest = transactionRepository.findEarliestCreatedAt();
+                    return earliest != null ? earliest.toLocalDate() : null;
+                });
+        if (day == null) return false;
+        LocalDateTime end = day.plusDays(1).atStartOfDay();
+        if (end.plus(settleMs, ChronoUnit.MILLIS).isAfter(LocalDateTime.now())) return false;
+        PostingJournal journal = postingJournal.getIfAvailable();
+        if (journal != null && journal.getOldestUnappliedMillis() < end.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()) {
+            return false;
+        }
+
+        snapshotRepository.deleteByDay(day);
+        List<BalanceSnapshot> snapshots = new ArrayList<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(DAY_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(end));
+            return ps;
+        }, dayReader(day, snapshots));
+        snapshotRepository.saveAll(snapshots);
+        checkpointRepository.save(new Checkpoint(CHECKPOINT, day.toEpochDay()));
+        return true;
+    }
+
+    private RowCallbackHandler dayReader(LocalDate day, List<BalanceSnapshot> snapshots) {
+        return rs -> {
+            long accountId = rs.getLong("account_id");
+            boolean credit = Transaction.TransactionType.valueOf(rs.getString("transaction_type")).isCredit();
+            BigDecimal amount = rs.getBigDecimal("amount");
+            BigDecimal balanceAfter = rs.getBigDecimal("balance_after");
+            boolean sharded = rs.getInt("balance_shards") > 0;
+            BalanceSnapshot current = snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+            if (current == null || current.getAccountId() != accountId) {
+                BigDecimal open = credit ? balanceAfter.subtract(amount) : balanceAfter.add(amount);
+                if (sharded) {
+                    open = snapshotRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(accountId, day)
+                            .map(BalanceSnapshot::getCloseBalance)
+                            .orElse(open);
+                }
+                current = BalanceSnapshot.builder()
+                        .accountId(accountId)
+                        .day(day)
+                        .openBalance(open)
+                        .minBalance(open)
+                        .maxBalance(open)
+                        .closeBalance(open)
+                        .build();
+                snapshots.add(current);
+            }
+            BigDecimal balance = !sharded ? balanceAfter
+                    : credit ? current.getCloseBalance().add(amount) : current.getCloseBalance().subtract(amount);
+            current.setMinBalance(current.getMinBalance().min(balance));
+            current.setMaxBalance(current.getMaxBalance().max(balance));
+            current.setCloseBalance(balance);
+            current.setLastTransactionId(rs.getLong("id"));
+        };
+    }
+
+    @Transactional(readOnly = true)
+    public AccountDTO.BalanceAsOfResponse getBalanceAsOf(String accountNumber, LocalDateTime asOf) {
+        AccountNumbers.requireValid(accountNumber);
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        BalanceSnapshot snapshot = snapshotRepository
+                .findFirstByAccountIdAndDayLessThanOrderByDayDesc(accountId, asOf.toLocalDate())
+                .orElse(null);
+        LocalDateTime from = snapshot != null ? snapshot.getDay().plusDays(1).atStartOfDay() : EARLIEST;
+        if (snapshot != null && accountRepository.findBalanceShardsById(accountId) > 0) {
+            // Slot deposits share balance_after, so carry the close forward by amount
+            return balanceAsOf(accountNumber, asOf,
+                    snapshot.getCloseBalance().add(transactionRepository.sumSignedAmounts(accountId, from, asOf)));
+        }
+        // Latest posting at or before asOf, searched only past the snapshot
+        BigDecimal balance = transactionRepository
+                .findPageByAccountId(accountId, from, asOf, Long.MAX_VALUE, PageRequest.of(0, 1))
+                .stream().findFirst()
+                .map(Transaction::getBalanceAfter)
+                .orElse(snapshot != null ? snapshot.getCloseBalance() : BigDecimal.ZERO);
+
+        return balanceAsOf(accountNumber, asOf, balance);
+    }
+
+    private static AccountDTO.BalanceAsOfResponse balanceAsOf(String accountNumber, LocalDateTime asOf, BigDecimal balance) {
+        AccountDTO.BalanceAsOfResponse response = new AccountDTO.BalanceAsOfResponse();
+        response.setAccountNumber(accountNumber);
+        response.setAsOf(asOf);
+        response.setBalance(balance);
+        return response;
+    }
+
+    /**
+     * Daily or weekly open/min/max/close over closed days. Days without activity
+     * carry the previous close; days not yet closed by the job are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<AccountDTO.BalancePoint> getBalanceHistory(String accountNumber, AccountDTO.BalanceHistoryQuery query) {
+        AccountNumbers.requireValid(accountNumber);
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        LocalDate lastClosed = checkpointRepository.findById(CHECKPOINT)
+                .map(c -> LocalDate.ofEpochDay(c.getValue()))
+                .orElse(null);
+        if (lastClosed == null) return List.of();
+
+        LocalDate to = query.getTo() == null || query.getTo().isAfter(lastClosed) ? lastClosed : query.getTo();
+        LocalDate from = query.getFrom() != null ? query.getFrom() : to.minusDays(29);
+        if (from.isAfter(to)) return List.of();
+        if (ChronoUnit.DAYS.between(from, to) >= maxHistoryDays) {
+            throw new RuntimeException("History is limited to " + maxHistoryDays + " days per request");
+        }
+
+        Map<LocalDate, BalanceSnapshot> byDay = snapshotRepository
+                .findByAccountIdAndDayBetweenOrderByDayAsc(accountId, from, to).stream()
+                .collect(Collectors.toMap(BalanceSnapshot::getDay, Function.identity()));
+        BigDecimal carried = snapshotRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(accountId, from)
+                .map(BalanceSnapshot::getCloseBalance)
+                .orElse(null);
+
+        Map<LocalDate, AccountDTO.BalancePoint> points = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            BalanceSnapshot snapshot = byDay.get(day);
+            if (snapshot == null && carried == null) continue; // before the account's first activity
+            BigDecimal open = snapshot != null ? snapshot.getOpenBalance() : carried;
+            BigDecimal min = snapshot != null ? snapshot.getMinBalance() : carried;
+            BigDecimal max = snapshot != null ? snapshot.getMaxBalance() : carried;
+            BigDecimal close = snapshot != null ? snapshot.getCloseBalance() : carried;
+            carried = close;
+
+            LocalDate period = query.getInterval() == AccountDTO.BalanceHistoryQuery.Interval.WEEK
+                    ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+            AccountDTO.BalancePoint point = points.get(period);
+            if (point == null) {
+                point = new AccountDTO.BalancePoint();
+                point.setPeriodStart(period);
+                point.setOpen(open);
+                point.setMin(min);
+                point.setMax(max);
+                points.put(period, point);
+            } else {
+                point.setMin(point.getMin().min(min));
+                point.setMax(point.getMax().max(max));
+            }
+            point.setClose(close);
+        }
+        return new ArrayList<>(points.values());
+    }
+}
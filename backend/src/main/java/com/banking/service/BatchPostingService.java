@@ -0,0 +1,232 @@
+package com.banking.service;
+
+import com.banking.dto.AccountDTO;
+import com.banking.entity.BankAccount;
+import com.banking.entity.Transaction;
+import com.banking.repository.BankAccountRepository;
+import com.banking.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk deposits and withdrawals for teller batches and end-of-day files.
+ * Lines are applied in chunks: each chunk locks and loads all of its accounts
+ * in one query, applies the lines in order against in-memory balances, and
+ * writes the transaction rows as batched inserts. A line that fails
+ * validation is reported and skipped without affecting the others; a chunk
+ * whose transaction fails is reported as rejected and the batch continues.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchPostingService {
+
+    private final BankAccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final PostingExecutor postingExecutor;
+    private final ShardedBalanceService shardedBalances;
+    private final DashboardAggregates dashboardAggregates;
+    private final BalanceCache balanceCache;
+    private final ReadYourWrites readYourWrites;
+    private final PostingMetrics postingMetrics;
+    // Present only with banking.journal.enabled=true
+    private final ObjectProvider<PostingJournal> postingJournal;
+
+    @Value("${banking.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${banking.batch.max-lines:100000}")
+    private int maxLines;
+
+    private record NumberedLine(int line, AccountDTO.BatchPostingLine posting) {
+    }
+
+    public AccountDTO.BatchPostingReport post(List<AccountDTO.BatchPostingLine> postings, Long performedBy) {
+        if (postings.size() > maxLines) throw new RuntimeException("Batch exceeds " + maxLines + " lines");
+        List<AccountDTO.BatchPostingResult> results = new ArrayList<>(postings.size());
+        List<NumberedLine> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < postings.size(); i++) {
+            chunk.add(new NumberedLine(i + 1, postings.get(i)));
+            if (chunk.size() == chunkSize) {
+                results.addAll(postChunk(chunk, performedBy));
+                chunk.clear();
+            }
+        }
+        results.addAll(postChunk(chunk, performedBy));
+        return report(results);
+    }
+
+    /**
+     * Reads {@code accountNumber,transactionType,amount[,description]} lines
+     * (an optional header line is skipped) and posts them chunk by chunk as
+     * they are read.
+     */
+    public AccountDTO.BatchPostingReport post(InputStream csv, Long performedBy) throws IOException {
+        List<AccountDTO.BatchPostingResult> results = new ArrayList<>();
+        List<NumberedLine> chunk = new ArrayList<>(chunkSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String text;
+        int lineNumber = 0;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank() || (lineNumber == 1 && text.toLowerCase().startsWith("accountnumber"))) continue;
+            if (lineNumber > maxLines) throw new RuntimeException("Batch exceeds " + maxLines + " lines");
+            try {
+                chunk.add(new NumberedLine(lineNumber, parse(text)));
+            } catch (RuntimeException e) {
+                results.add(result(lineNumber, null, null, "Malformed line: " + e.getMessage()));
+                continue;
+            }
+            if (chunk.size() == chunkSize) {
+                results.addAll(postChunk(chunk, performedBy));
+                chunk.clear();
+            }
+        }
+        results.addAll(postChunk(chunk, performedBy));
+        return report(results);
+    }
+
+    private List<AccountDTO.BatchPostingResult> postChunk(List<NumberedLine> chunk, Long performedBy) {
+        List<AccountDTO.BatchPostingResult> results = new ArrayList<>(chunk.size());
+        List<NumberedLine> valid = new ArrayList<>(chunk.size());
+        for (NumberedLine line : chunk) {
+            String error = validate(line.posting());
+            if (error != null) results.add(result(line.line(), line.posting().getAccountNumber(), null, error));
+            else valid.add(line);
+        }
+        if (valid.isEmpty()) return results;
+
+        Set<String> accountNumbers = valid.stream()
+                .map(line -> line.posting().getAccountNumber())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        try {
+            results.addAll(postingExecutor.execute(accountNumbers, () -> applyChunk(valid, accountNumbers, performedBy)));
+        } catch (RuntimeException e) {
+            for (NumberedLine line : valid) {
+                results.add(result(line.line(), line.posting().getAccountNumber(), null, "Chunk failed: " + e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Runs inside the chunk's transaction, with every account of the chunk locked
+    private List<AccountDTO.BatchPostingResult> applyChunk(List<NumberedLine> lines, Set<String> accountNumbers,
+                                                         Long performedBy) {
+        Map<String, BankAccount> accounts = accountRepository.findAllForUpdate(accountNumbers).stream()
+                .collect(Collectors.toMap(BankAccount::getAccountNumber, Function.identity()));
+        for (BankAccount account : accounts.values()) {
+            if (account.getBalanceShards() != null && account.getBalanceShards() > 0) shardedBalances.fold(account);
+        }
+
+        PostingJournal journal = postingJournal.getIfAvailable();
+        List<AccountDTO.BatchPostingResult> results = new ArrayList<>(lines.size());
+        List<Transaction> inserts = new ArrayList<>(lines.size());
+        BigDecimal netChange = BigDecimal.ZERO;
+
+        for (NumberedLine line : lines) {
+            AccountDTO.BatchPostingLine posting = line.posting();
+            BankAccount account = accounts.get(posting.getAccountNumber());
+            PostingMetrics.Operation operation = posting.getTransactionType() == Transaction.TransactionType.DEPOSIT
+                    ? PostingMetrics.Operation.DEPOSIT : PostingMetrics.Operation.WITHDRAWAL;
+            if (account == null) {
+                results.add(rejected(line, operation, PostingMetrics.Reason.NOT_FOUND));
+                continue;
+            }
+            if (!account.getIsActive()) {
+                results.add(rejected(line, operation, PostingMetrics.Reason.INACTIVE));
+                continue;
+            }
+            BigDecimal change = posting.getTransactionType() == Transaction.TransactionType.DEPOSIT
+                    ? posting.getAmount() : posting.getAmount().negate();
+            BigDecimal balanceAfter = account.getBalance().add(change);
+            // Journaled withdrawals already acknowledged still count against the account
+            BigDecimal pendingDebits = journal != null && change.signum() < 0
+                    ? journal.pendingDebits(posting.getAccountNumber()) : BigDecimal.ZERO;
+            if (balanceAfter.subtract(pendingDebits).signum() < 0) {
+                results.add(rejected(line, operation, PostingMetrics.Reason.INSUFFICIENT_BALANCE));
+                continue;
+            }
+            account.setBalance(balanceAfter);
+            netChange = netChange.add(change);
+            inserts.add(Transaction.builder()
+                    .account(account)
+                    .transactionType(posting.getTransactionType())
+                    .amount(posting.getAmount())
+                    .balanceAfter(balanceAfter)
+                    .description(posting.getDescription())
+                    .performedBy(performedBy)
+                    .build());
+            results.add(result(line.line(), posting.getAccountNumber(), balanceAfter, null));
+        }
+
+        // Pooled ids plus hibernate.jdbc.batch_size turn these into batched INSERTs at commit
+        transactionRepository.saveAll(inserts);
+        dashboardAggregates.posted(inserts.size(), netChange);
+        postingMetrics.postedAfterCommit(inserts);
+        balanceCache.invalidateAfterCommit(accounts.keySet());
+        readYourWrites.pinAfterCommit(performedBy);
+        return results;
+    }
+
+    private AccountDTO.BatchPostingResult rejected(NumberedLine line, PostingMetrics.Operation operation,
+                                                  PostingMetrics.Reason reason) {
+        String error = postingMetrics.rejected(operation, reason).getMessage();
+        return result(line.line(), line.posting().getAccountNumber(), null, error);
+    }
+
+    private static String validate(AccountDTO.BatchPostingLine posting) {
+        if (!AccountNumbers.isValid(posting.getAccountNumber())) return "Invalid account number";
+        if (posting.getTransactionType() != Transaction.TransactionType.DEPOSIT
+                && posting.getTransactionType() != Transaction.TransactionType.WITHDRAW) {
+            return "Transaction type must be DEPOSIT or WITHDRAW";
+        }
+        if (posting.getAmount() == null || posting.getAmount().signum() <= 0) return "Amount must be positive";
+        return null;
+    }
+
+    private static AccountDTO.BatchPostingLine parse(String text) {
+        String[] fields = text.split(",", 4);
+        if (fields.length < 3) throw new RuntimeException("expected accountNumber,transactionType,amount[,description]");
+        AccountDTO.BatchPostingLine posting = new AccountDTO.BatchPostingLine();
+        posting.setAccountNumber(fields[0].trim());
+        posting.setTransactionType(Transaction.TransactionType.valueOf(fields[1].trim().toUpperCase()));
+        posting.setAmount(new BigDecimal(fields[2].trim()));
+        if (fields.length == 4 && !fields[3].isBlank()) posting.setDescription(fields[3].trim());
+        return posting;
+    }
+
+    private static AccountDTO.BatchPostingResult result(int line, String accountNumber, BigDecimal balanceAfter, String error) {
+        AccountDTO.BatchPostingResult r = new AccountDTO.BatchPostingResult();
+        r.setLine(line);
+        r.setAccountNumber(accountNumber);
+        r.setPosted(error == null);
+        r.setBalanceAfter(balanceAfter);
+        r.setError(error);
+        return r;
+    }
+
+    private static AccountDTO.BatchPostingReport report(List<AccountDTO.BatchPostingResult> results) {
+        results.sort((a, b) -> Integer.compare(a.getLine(), b.getLine()));
+        AccountDTO.BatchPostingReport report = new AccountDTO.BatchPostingReport();
+        report.setResults(results);
+        report.setTotal(results.size());
+        report.setPosted((int) results.stream().filter(AccountDTO.BatchPostingResult::isPosted).count());
+        report.setRejected(report.getTotal() - report.getPosted());
+        return report;
+    }
+}
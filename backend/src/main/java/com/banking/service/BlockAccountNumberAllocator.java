@@ -0,0 +1,79 @@
+package com.banking.service;
+
+import com.banking.entity.AccountNumberRange;
+import com.banking.repository.AccountNumberRangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Leases blocks of sequence values from the account_number_ranges table and
+ * hands them out from memory, so allocating a number normally costs no query
+ * at all. Blocks are disjoint across nodes; numbers left in a block when a
+ * node stops are simply skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.account-number.allocator", havingValue = "block", matchIfMissing = true)
+public class BlockAccountNumberAllocator implements AccountNumberAllocator {
+
+    private static final String RANGE = "bank_accounts";
+    private static final long FIRST_VALUE = 10_000_000_000L; // smallest 11-digit sequence value
+
+    private final AccountNumberRangeRepository rangeRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${banking.account-number.block-size:100}")
+    private int blockSize;
+
+    private long next;
+    private long end;
+
+    public BlockAccountNumberAllocator(AccountNumberRangeRepository rangeRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.rangeRepository = rangeRepository;
+        // Leased and committed on its own, so the range row is not locked for the caller's whole transaction
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String next() {
+        lock.lock();
+        try {
+            if (next == end) {
+                next = leaseBlock();
+                end = next + blockSize;
+            }
+            return AccountNumbers.withCheckDigit(next++);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long leaseBlock() {
+        try {
+            return leaseTransaction.execute(status -> lease());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created the range row first
+            return leaseTransaction.execute(status -> lease());
+        }
+    }
+
+    private long lease() {
+        AccountNumberRange range = rangeRepository.findForUpdate(RANGE).orElse(null);
+        if (range == null) {
+            rangeRepository.saveAndFlush(AccountNumberRange.builder().name(RANGE).nextValue(FIRST_VALUE + blockSize).build());
+            return FIRST_VALUE;
+        }
+        long start = range.getNextValue();
+        range.setNextValue(start + blockSize);
+        return start;
+    }
+}
@@ -0,0 +1,115 @@
+package com.banking.service;
+
+import com.banking.repository.AccountBalanceShardRepository;
+import com.banking.repository.BankAccountRepository;
+import com.banking.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Running totals behind the admin dashboard. The write paths in
+ * {@link AccountService} record their deltas here; the deltas are applied once
+ * the surrounding transaction commits, so rolled back work never shows up.
+ * A periodic reconcile against the database corrects drift, including
+ * changes committed by other nodes. It replaces the totals with what it
+ * counted and holds deltas off while its queries run, so none is counted
+ * twice; a posting that commits just before the counts but applies its delta
+ * after them is over-counted until the next reconcile.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardAggregates {
+
+    private final BankAccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountBalanceShardRepository shardRepository;
+
+    private final AtomicLong totalAccounts = new AtomicLong();
+    private final AtomicLong totalTransactions = new AtomicLong();
+    private final AtomicReference<BigDecimal> totalBalance = new AtomicReference<>(BigDecimal.ZERO);
+    private volatile LocalDateTime reconciledAt;
+    // Deltas share the read side; reconcile takes the write side across its counts
+    private final ReentrantReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+
+    @Value
+    public static class Snapshot {
+        long totalAccounts;
+        long totalTransactions;
+        BigDecimal totalBalance;
+        LocalDateTime reconciledAt;
+    }
+
+    public Snapshot snapshot() {
+        if (reconciledAt == null) reconcile();
+        return new Snapshot(totalAccounts.get(), totalTransactions.get(), totalBalance.get(), reconciledAt);
+    }
+
+    public void accountOpened(BigDecimal openingBalance, boolean withTransaction) {
+        afterCommit(() -> {
+            totalAccounts.incrementAndGet();
+            if (withTransaction) totalTransactions.incrementAndGet();
+            addBalance(openingBalance);
+        });
+    }
+
+    public void accountDeactivated(BigDecimal balance) {
+        afterCommit(() -> addBalance(balance.negate()));
+    }
+
+    /**
+     * One transaction row written, moving the total balance by {@code balanceDelta}.
+     */
+    public void posted(BigDecimal balanceDelta) {
+        afterCommit(() -> {
+            totalTransactions.incrementAndGet();
+            addBalance(balanceDelta);
+        });
+    }
+
+    public void posted(long transactions, BigDecimal balanceDelta) {
+        afterCommit(() -> {
+            totalTransactions.addAndGet(transactions);
+            addBalance(balanceDelta);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${banking.dashboard.reconcile-interval:60000}")
+    public void reconcile() {
+        reconcileLock.writeLock().lock();
+        try {
+            long accounts = accountRepository.count();
+            long transactions = transactionRepository.count();
+            BigDecimal balance = accountRepository.getTotalBalance();
+            BigDecimal sharded = shardRepository.getTotalActiveBalance();
+            totalAccounts.set(accounts);
+            totalTransactions.set(transactions);
+            totalBalance.set((balance != null ? balance : BigDecimal.ZERO).add(sharded));
+            reconciledAt = LocalDateTime.now();
+        } finally {
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable delta) {
+        AfterCommit.run(() -> {
+            reconcileLock.readLock().lock();
+            try {
+                delta.run();
+            } finally {
+                reconcileLock.readLock().unlock();
+            }
+        });
+    }
+
+    private void addBalance(BigDecimal delta) {
+        totalBalance.accumulateAndGet(delta, BigDecimal::add);
+    }
+}
@@ -0,0 +1,238 @@
+package com.banking.service;
+
+import com.banking.dto.AccountDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full dumps of transactions and accounts for regulators. Rows are read through
+ * a forward-only JDBC cursor and written to the output as they arrive, so memory
+ * use does not depend on the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${banking.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        // Accepts the extension in any case, as the query parameter is documented lowercase
+        public static Format of(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value.trim())) return format;
+            }
+            throw new IllegalArgumentException("Unknown export format: " + value);
+        }
+    }
+
+    /**
+     * Binds {@code format=ndjson|csv} request parameters.
+     */
+    @Component
+    static class FormatConverter implements Converter<String, Format> {
+        @Override
+        public Format convert(String source) {
+            return Format.of(source);
+        }
+    }
+
+    private static final String TRANSACTIONS_SQL =
+            "SELECT t.id, a.account_number, b.bank_name, a.account_type, t.transaction_type, t.amount, " +
+            "t.balance_after, t.description, t.performed_by, t.correlation_id, t.created_at " +
+            "FROM transactions t " +
+            "JOIN bank_accounts a ON a.id = t.account_id " +
+            "LEFT JOIN banks b ON b.id = a.bank_id";
+
+    private static final String ACCOUNTS_SQL =
+            "SELECT a.id, a.account_number, a.user_id, b.bank_name, a.account_type, a.name, a.address, " +
+            "a.phone_number, a.balance + COALESCE((SELECT SUM(s.balance) FROM account_balance_shards s " +
+            "WHERE s.account_id = a.id), 0) AS balance, a.is_active, a.created_at " +
+            "FROM bank_accounts a " +
+            "LEFT JOIN banks b ON b.id = a.bank_id";
+
+    @Transactional(readOnly = true)
+    public void exportTransactions(AccountDTO.ExportQuery query, OutputStream out) throws IOException {
+        export(TRANSACTIONS_SQL, "t.created_at", "t.id", query, out);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAccounts(AccountDTO.ExportQuery query, OutputStream out) throws IOException {
+        export(ACCOUNTS_SQL, "a.created_at", "a.id", query, out);
+    }
+
+    private void export(String select, String dateColumn, String orderColumn,
+                        AccountDTO.ExportQuery query, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(select).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (query.getBankId() != null) {
+            sql.append(" AND a.bank_id = ?");
+            args.add(query.getBankId());
+        }
+        if (query.getAccountType() != null) {
+            sql.append(" AND a.account_type = ?");
+            args.add(query.getAccountType().name());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND ").append(dateColumn).append(" >= ?");
+            args.add(Timestamp.valueOf(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND ").append(dateColumn).append(" < ?");
+            args.add(Timestamp.valueOf(query.getTo()));
+        }
+        sql.append(" ORDER BY ").append(orderColumn);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = query.getFormat() == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        try {
+            // Fetch size is set on the statement, not on the shared template
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                new ArgumentPreparedStatementSetter(args.toArray()).setValues(ps);
+                return ps;
+            }, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        rowWriter.finish();
+        writer.flush();
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static Object valueOf(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp ts) return ts.toLocalDateTime().toString();
+        if (value instanceof BigDecimal bd) return bd.toPlainString();
+        return value;
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private JsonGenerator json;
+        private String[] labels;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            if (json == null) {
+                json = objectMapper.getFactory().createGenerator(writer);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Rows are separated by the newline below only
+                json.setRootValueSeparator(null);
+                labels = labels(rs.getMetaData());
+            }
+            json.writeStartObject();
+            for (int i = 0; i < labels.length; i++) {
+                Object value = rs.getObject(i + 1);
+                json.writeFieldName(labels[i]);
+                if (value instanceof BigDecimal bd) json.writeNumber(bd);
+                else if (value instanceof Timestamp ts) json.writeString(ts.toLocalDateTime().toString());
+                else json.writeObject(value);
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (json != null) json.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columns;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            if (columns == 0) {
+                String[] labels = labels(rs.getMetaData());
+                columns = labels.length;
+                writer.write(String.join(",", labels));
+                writer.write("\r\n");
+            }
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) writer.write(',');
+                Object value = valueOf(rs, i);
+                if (value != null) writer.write(escape(value.toString()));
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static String[] labels(ResultSetMetaData meta) throws SQLException {
+        String[] labels = new String[meta.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = meta.getColumnLabel(i + 1).toLowerCase();
+        }
+        return labels;
+    }
+}
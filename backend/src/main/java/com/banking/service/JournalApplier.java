@@ -0,0 +1,273 @@
+package com.banking.service;
+
+import com.banking.entity.BankAccount;
+import com.banking.entity.Checkpoint;
+import com.banking.entity.Transaction;
+import com.banking.entity.UnappliedPosting;
+import com.banking.repository.BankAccountRepository;
+import com.banking.repository.CheckpointRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UnappliedPostingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies durable journal entries to bank_accounts and transactions in
+ * sequence order, a batch per database transaction. The batch's last sequence
+ * is written to this journal's checkpoints row in the same transaction, so after a crash
+ * every entry is applied exactly once: replay skips up to the checkpoint.
+ *
+ * An entry that can no longer be posted (account closed, or overdrawn by a
+ * posting that bypassed the journal) was still acknowledged to its caller, so
+ * it is parked in unapplied_postings, in the same transaction, for
+ * reconciliation. A batch the database rejects (a value that does not fit a
+ * column) is re-applied one entry per transaction and only the entries that
+ * still fail are parked, so one bad entry does not stall the ones behind it.
+ * A batch that fails for any other reason, such as a lost connection, is
+ * retried until it succeeds.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class JournalApplier {
+
+    // Checkpoint row of journals created before each journal had its own id
+    static final String LEGACY_CHECKPOINT = "posting-journal";
+    private static final int MAX_TEXT = 255;
+
+    private final BankAccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ShardedBalanceService shardedBalances;
+    private final CheckpointRepository checkpointRepository;
+    private final DashboardAggregates dashboardAggregates;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceCache balanceCache;
+    private final UnappliedPostingRepository unappliedPostingRepository;
+
+    @Value("${banking.journal.apply-batch-size:500}")
+    private int batchSize;
+
+    @Value("${banking.journal.apply-retry-ms:1000}")
+    private long retryMs;
+
+    private final BlockingQueue<JournalEntry> queue = new LinkedBlockingQueue<>();
+    // Acknowledged withdrawals not yet applied, held against the account's available balance
+    private final ConcurrentHashMap<String, BigDecimal> pendingDebits = new ConcurrentHashMap<>();
+    // Acknowledgement time of every entry not yet applied, by sequence
+    private final ConcurrentSkipListMap<Long, Long> unappliedAckMillis = new ConcurrentSkipListMap<>();
+
+    private String checkpoint;
+    private volatile long appliedSequence;
+    private volatile boolean running;
+    private Thread worker;
+
+    long loadCheckpoint(String journalId) {
+        checkpoint = journalId;
+        appliedSequence = checkpointRepository.findById(checkpoint).map(Checkpoint::getValue).orElse(0L);
+        return appliedSequence;
+    }
+
+    long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    int getBacklog() {
+        return queue.size();
+    }
+
+    BigDecimal pendingDebits(String accountNumber) {
+        return pendingDebits.getOrDefault(accountNumber, BigDecimal.ZERO);
+    }
+
+    void reserve(String accountNumber, BigDecimal amount) {
+        pendingDebits.merge(accountNumber, amount, BigDecimal::add);
+    }
+
+    void release(String accountNumber, BigDecimal amount) {
+        pendingDebits.computeIfPresent(accountNumber, (number, pending) -> {
+            BigDecimal left = pending.subtract(amount);
+            return left.signum() > 0 ? left : null;
+        });
+    }
+
+    // Called by the journal writer once the entry is durable, in sequence order
+    void enqueue(JournalEntry entry) {
+        unappliedAckMillis.put(entry.getSequence(), entry.getCreatedAtMillis());
+        queue.add(entry);
+    }
+
+    // Long.MAX_VALUE when everything acknowledged has been applied
+    long oldestUnappliedMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (long ackMillis : unappliedAckMillis.values()) oldest = Math.min(oldest, ackMillis);
+        return oldest;
+    }
+
+    void start() {
+        running = true;
+        worker = new Thread(this::applyLoop, "journal-applier");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) worker.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    private void applyLoop() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    JournalEntry first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                try {
+                    apply(batch);
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Journal batch {}..{} was rejected by the database, applying its entries one at a time",
+                            batch.get(0).getSequence(), batch.get(batch.size() - 1).getSequence(), e);
+                    for (JournalEntry entry : batch) {
+                        if (entry.getSequence() > appliedSequence) applyOrPark(entry);
+                    }
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // The database itself is failing; start again from the first entry not yet applied
+                log.error("Journal entries from {} could not be applied, retrying", appliedSequence + 1, e);
+                if (!running) return;
+                try {
+                    Thread.sleep(retryMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(List<JournalEntry> entries) {
+        transactionTemplate.executeWithoutResult(status -> applyBatch(entries));
+        applied(entries);
+    }
+
+    // An entry the database rejects on its own is parked, so it does not hold up the entries after it
+    private void applyOrPark(JournalEntry entry) {
+        List<JournalEntry> single = List.of(entry);
+        try {
+            apply(single);
+        } catch (DataIntegrityViolationException e) {
+            String reason = "Rejected by the database: " + e.getMostSpecificCause().getMessage();
+            transactionTemplate.executeWithoutResult(status -> {
+                park(entry, reason);
+                checkpointRepository.save(new Checkpoint(checkpoint, entry.getSequence()));
+            });
+            applied(single);
+        }
+    }
+
+    private void applied(List<JournalEntry> entries) {
+        appliedSequence = entries.get(entries.size() - 1).getSequence();
+        for (JournalEntry entry : entries) {
+            unappliedAckMillis.remove(entry.getSequence());
+            if (entry.getType() == Transaction.TransactionType.WITHDRAW) {
+                release(entry.getAccountNumber(), entry.getAmount());
+            }
+        }
+    }
+
+    private void applyBatch(List<JournalEntry> batch) {
+        List<Transaction> inserts = new ArrayList<>(batch.size());
+        BigDecimal netChange = BigDecimal.ZERO;
+        for (JournalEntry entry : batch) {
+            if (entry.getSequence() <= appliedSequence) continue;
+            Optional<BankAccountRepository.PostedBalance> posted = entry.getType() == Transaction.TransactionType.DEPOSIT
+                    ? shardedBalances.credit(entry.getAccountNumber(), entry.getAmount())
+                            .or(() -> accountRepository.credit(entry.getAccountNumber(), entry.getAmount()))
+                    : debit(entry);
+            if (posted.isEmpty()) {
+                park(entry, rejection(entry));
+                continue;
+            }
+            netChange = netChange.add(entry.getType() == Transaction.TransactionType.DEPOSIT
+                    ? entry.getAmount() : entry.getAmount().negate());
+            inserts.add(Transaction.builder()
+                    .account(accountRepository.getReferenceById(posted.get().getAccountId()))
+                    .transactionType(entry.getType())
+                    .amount(entry.getAmount())
+                    .balanceAfter(posted.get().getBalance())
+                    .description(entry.getDescription())
+                    .performedBy(entry.getPerformedBy())
+                    .createdAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getCreatedAtMillis()), ZoneId.systemDefault()))
+                    .build());
+        }
+        transactionRepository.saveAll(inserts);
+        checkpointRepository.save(new Checkpoint(checkpoint, batch.get(batch.size() - 1).getSequence()));
+        dashboardAggregates.posted(inserts.size(), netChange);
+        balanceCache.invalidateAfterCommit(batch.stream().map(JournalEntry::getAccountNumber).distinct().toList());
+    }
+
+    private String rejection(JournalEntry entry) {
+        BankAccount account = accountRepository.findByAccountNumber(entry.getAccountNumber()).orElse(null);
+        return account == null ? "Account not found"
+                : !account.getIsActive() ? "Account is not active" : "Insufficient balance";
+    }
+
+    private void park(JournalEntry entry, String reason) {
+        log.warn("Journal entry {} parked for reconciliation: {} of {} to {} could not be posted ({})",
+                entry.getSequence(), entry.getType(), entry.getAmount(), entry.getAccountNumber(), reason);
+        unappliedPostingRepository.save(UnappliedPosting.builder()
+                .journalId(checkpoint)
+                .journalSequence(entry.getSequence())
+                .transactionType(entry.getType())
+                .accountNumber(entry.getAccountNumber())
+                .amount(entry.getAmount())
+                .description(truncate(entry.getDescription(), MAX_TEXT))
+                .performedBy(entry.getPerformedBy())
+                .acknowledgedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getCreatedAtMillis()), ZoneId.systemDefault()))
+                .reason(truncate(reason, MAX_TEXT))
+                .build());
+    }
+
+    // Entries journaled before postings were checked against the column sizes may not fit as they are
+    private static String truncate(String text, int length) {
+        return text == null || text.length() <= length ? text : text.substring(0, length);
+    }
+
+    private Optional<BankAccountRepository.PostedBalance> debit(JournalEntry entry) {
+        if (!shardedBalances.isSharded(entry.getAccountNumber())) {
+            return accountRepository.debit(entry.getAccountNumber(), entry.getAmount());
+        }
+        try {
+            return Optional.of(shardedBalances.debit(entry.getAccountNumber(), entry.getAmount()));
+        } catch (RuntimeException e) {
+            // Not found, inactive or insufficient; thrown before anything is changed
+            return Optional.empty();
+        }
+    }
+}
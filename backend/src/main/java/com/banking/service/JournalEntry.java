@@ -0,0 +1,69 @@
+package com.banking.service;
+
+import com.banking.entity.Transaction;
+import lombok.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * One posting in the write-ahead journal. {@code sequence} is assigned by the
+ * journal writer and is strictly increasing across the whole journal.
+ */
+@Value
+public class JournalEntry {
+
+    long sequence;
+    Transaction.TransactionType type;
+    String accountNumber;
+    BigDecimal amount;
+    String description;
+    Long performedBy;
+    long createdAtMillis;
+
+    JournalEntry withSequence(long sequence) {
+        return new JournalEntry(sequence, type, accountNumber, amount, description, performedBy, createdAtMillis);
+    }
+
+    byte[] encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(sequence);
+            out.writeByte(type.ordinal());
+            out.writeUTF(accountNumber);
+            out.writeUTF(amount.toPlainString());
+            out.writeBoolean(description != null);
+            if (description != null) out.writeUTF(description);
+            out.writeLong(performedBy != null ? performedBy : -1L);
+            out.writeLong(createdAtMillis);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The sequence is the first field, so the writer can stamp it into a payload encoded beforehand
+    static void stampSequence(byte[] payload, long sequence) {
+        ByteBuffer.wrap(payload).putLong(0, sequence);
+    }
+
+    static JournalEntry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long sequence = in.readLong();
+        Transaction.TransactionType type = Transaction.TransactionType.values()[in.readByte()];
+        String accountNumber = in.readUTF();
+        BigDecimal amount = new BigDecimal(in.readUTF());
+        String description = in.readBoolean() ? in.readUTF() : null;
+        long performedBy = in.readLong();
+        long createdAtMillis = in.readLong();
+        return new JournalEntry(sequence, type, accountNumber, amount, description,
+                performedBy >= 0 ? performedBy : null, createdAtMillis);
+    }
+}
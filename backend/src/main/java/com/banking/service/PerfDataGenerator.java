@@ -0,0 +1,191 @@
+package com.banking.service;
+
+import com.banking.entity.Bank;
+import com.banking.entity.BankAccount;
+import com.banking.entity.BankTeller;
+import com.banking.entity.Transaction;
+import com.banking.entity.User;
+import com.banking.repository.BankAccountRepository;
+import com.banking.repository.BankRepository;
+import com.banking.repository.BankTellerRepository;
+import com.banking.repository.TransactionRepository;
+import com.banking.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds an empty database for the {@code perf} profile: banks, one admin,
+ * tellers and clients, each client's accounts, and a random-walk history of
+ * deposits and withdrawals per account spread over the last
+ * {@code history-days} days. Balances and {@code balance_after} agree with
+ * the generated history. The same seed produces the same data.
+ *
+ * Users are {@code admin}, {@code teller1..N} and {@code client1..N}, all with
+ * {@code banking.perf.password}; every account has PIN {@code banking.perf.pin}.
+ */
+@Slf4j
+@Component
+@Profile("perf")
+@RequiredArgsConstructor
+public class PerfDataGenerator implements ApplicationRunner {
+
+    private static final int CLIENTS_PER_TRANSACTION = 50;
+
+    private final BankRepository bankRepository;
+    private final UserRepository userRepository;
+    private final BankTellerRepository tellerRepository;
+    private final BankAccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final PasswordEncoder passwordEncoder;
+    private final PinVerifier pinVerifier;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardAggregates dashboardAggregates;
+
+    @Value("${banking.perf.banks:5}")
+    private int banks;
+
+    @Value("${banking.perf.tellers:20}")
+    private int tellers;
+
+    @Value("${banking.perf.clients:500}")
+    private int clients;
+
+    @Value("${banking.perf.accounts-per-client:2}")
+    private int accountsPerClient;
+
+    @Value("${banking.perf.transactions-per-account:100}")
+    private int transactionsPerAccount;
+
+    @Value("${banking.perf.history-days:90}")
+    private int historyDays;
+
+    @Value("${banking.perf.password:perf123}")
+    private String password;
+
+    @Value("${banking.perf.pin:1234}")
+    private String pin;
+
+    @Value("${banking.perf.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.count() > 0) {
+            log.info("Database already has users, skipping perf data generation");
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Random random = new Random(seed);
+        // Hashed once and shared, so seeding does not spend minutes in BCrypt
+        String passwordHash = passwordEncoder.encode(password);
+        String pinHash = pinVerifier.encode(pin);
+        LocalDateTime historyStart = LocalDateTime.now().minusDays(historyDays).truncatedTo(ChronoUnit.DAYS);
+
+        List<Bank> savedBanks = transactionTemplate.execute(status -> {
+            userRepository.save(user("admin", "Perf Admin", User.Role.ADMIN, passwordHash));
+            for (int i = 1; i <= tellers; i++) {
+                User teller = userRepository.save(user("teller" + i, "Perf Teller " + i, User.Role.BANK_TELLER, passwordHash));
+                tellerRepository.save(BankTeller.builder().user(teller).name(teller.getName()).accountCreationCount(0).build());
+            }
+            List<Bank> list = new ArrayList<>(banks);
+            for (int i = 1; i <= banks; i++) {
+                list.add(bankRepository.save(Bank.builder()
+                        .bankName("Perf Bank " + i)
+                        .address("Branch road " + i)
+                        .pincode(String.format("%06d", 100000 + i))
+                        .ifscCode(String.format("PERF%07d", i))
+                        .build()));
+            }
+            return list;
+        });
+
+        long transactions = 0;
+        for (int first = 1; first <= clients; first += CLIENTS_PER_TRANSACTION) {
+            int from = first;
+            int to = Math.min(clients, first + CLIENTS_PER_TRANSACTION - 1);
+            transactions += transactionTemplate.execute(status ->
+                    seedClients(from, to, savedBanks, passwordHash, pinHash, historyStart, random));
+        }
+        dashboardAggregates.reconcile();
+        log.info("Perf data: {} banks, {} tellers, {} clients, {} accounts, {} transactions in {} ms",
+                banks, tellers, clients, (long) clients * accountsPerClient, transactions,
+                System.currentTimeMillis() - started);
+    }
+
+    private long seedClients(int from, int to, List<Bank> savedBanks, String passwordHash, String pinHash,
+                             LocalDateTime historyStart, Random random) {
+        long written = 0;
+        for (int i = from; i <= to; i++) {
+            User client = userRepository.save(user("client" + i, "Perf Client " + i, User.Role.CLIENT, passwordHash));
+            for (int a = 0; a < accountsPerClient; a++) {
+                BankAccount account = BankAccount.builder()
+                        .accountNumber(accountNumberAllocator.next())
+                        .user(client)
+                        .bank(savedBanks.isEmpty() ? null : savedBanks.get(random.nextInt(savedBanks.size())))
+                        .name(client.getName())
+                        .address("Street " + i)
+                        .phoneNumber(String.format("9%09d", i))
+                        .pinHash(pinHash)
+                        .accountType(random.nextInt(4) == 0 ? BankAccount.AccountType.CURRENT : BankAccount.AccountType.SAVINGS)
+                        .isActive(true)
+                        .createdAt(historyStart)
+                        .build();
+                List<Transaction> history = history(account, historyStart, random);
+                account.setBalance(history.isEmpty() ? BigDecimal.ZERO : history.get(history.size() - 1).getBalanceAfter());
+                accountRepository.save(account);
+                transactionRepository.saveAll(history);
+                written += history.size();
+            }
+        }
+        return written;
+    }
+
+    // Deposits and withdrawals in time order; a withdrawal the balance cannot cover becomes a deposit
+    private List<Transaction> history(BankAccount account, LocalDateTime start, Random random) {
+        List<Transaction> history = new ArrayList<>(transactionsPerAccount);
+        long spanSeconds = ChronoUnit.SECONDS.between(start, LocalDateTime.now());
+        long step = Math.max(1, spanSeconds / Math.max(1, transactionsPerAccount));
+        BigDecimal balance = BigDecimal.ZERO;
+        for (int t = 0; t < transactionsPerAccount; t++) {
+            LocalDateTime at = start.plusSeconds((long) ((t + random.nextDouble()) * step));
+            // Mostly small amounts with an occasional large one
+            BigDecimal amount = BigDecimal.valueOf(Math.round(Math.exp(3 + random.nextGaussian() * 1.5) * 100) + 100, 2);
+            boolean withdraw = t > 0 && random.nextInt(5) < 2 && balance.compareTo(amount) >= 0;
+            balance = withdraw ? balance.subtract(amount) : balance.add(amount);
+            history.add(Transaction.builder()
+                    .account(account)
+                    .transactionType(withdraw ? Transaction.TransactionType.WITHDRAW : Transaction.TransactionType.DEPOSIT)
+                    .amount(amount)
+                    .balanceAfter(balance)
+                    .description(t == 0 ? "Initial deposit" : withdraw ? "ATM withdrawal" : "Cash deposit")
+                    .createdAt(at)
+                    .build());
+        }
+        return history;
+    }
+
+    private static User user(String username, String name, User.Role role, String passwordHash) {
+        return User.builder()
+                .username(username)
+                .password(passwordHash)
+                .role(role)
+                .name(name)
+                .email(username + "@perf.bank.local")
+                .build();
+    }
+}
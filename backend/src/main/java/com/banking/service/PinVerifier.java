@@ -0,0 +1,110 @@
+package com.banking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and checks PINs on a small dedicated pool, so BCrypt work cannot
+ * take over the request threads. The pool has a bounded queue: when it is
+ * full, or a check waits longer than {@code timeout-ms}, the caller gets a 503
+ * straight away instead of queueing behind the backlog.
+ *
+ * PINs have their own BCrypt cost ({@code banking.pin.bcrypt-strength}); a
+ * change applies to PINs set afterwards, existing hashes keep their cost.
+ */
+@Component
+public class PinVerifier {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueLatency;
+    private final Timer hashTime;
+
+    @Value("${banking.pin.timeout-ms:2000}")
+    private long timeoutMs;
+
+    public PinVerifier(MeterRegistry meterRegistry,
+                       @Value("${banking.pin.bcrypt-strength:10}") int strength,
+                       @Value("${banking.pin.threads:0}") int threads,
+                       @Value("${banking.pin.queue-capacity:64}") int queueCapacity) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "pin-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.queueLatency = Timer.builder("banking.pin.queue.latency")
+                .description("Time a PIN hash waited for a pool thread")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.hashTime = Timer.builder("banking.pin.hash")
+                .description("Time spent hashing or checking a PIN")
+                .register(meterRegistry);
+        Gauge.builder("banking.pin.queue.depth", executor, e -> e.getQueue().size())
+                .description("PIN hashes waiting for a pool thread")
+                .register(meterRegistry);
+    }
+
+    public boolean matches(String pin, String pinHash) {
+        if (pinHash == null) return false;
+        return run(() -> encoder.matches(pin, pinHash));
+    }
+
+    public String encode(String pin) {
+        return run(() -> encoder.encode(pin));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                queueLatency.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return hashTime.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy();
+        }
+        try {
+            return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw busy();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while verifying PIN");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "PIN verification is busy, please retry");
+    }
+}
@@ -0,0 +1,125 @@
+package com.banking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs balance-changing work for one or more accounts. Callers on this node
+ * that touch the same account queue on an in-process striped lock instead of
+ * contending in the database; the work itself runs in its own transaction and
+ * is retried a bounded number of times on optimistic-lock conflicts (from
+ * other nodes) and deadlocks. The lock is held until the transaction commits.
+ */
+@Component
+public class PostingExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+
+    @Value("${banking.posting.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${banking.posting.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public PostingExecutor(TransactionTemplate transactionTemplate,
+                           @Value("${banking.posting.lock-stripes:1024}") int stripeCount) {
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new ReentrantLock();
+    }
+
+    public <T> T execute(String accountNumber, Supplier<T> work) {
+        return execute(List.of(accountNumber), work);
+    }
+
+    /**
+     * Locks every stripe covering {@code accountNumbers} in index order, so two
+     * callers with overlapping account sets can never wait on each other.
+     */
+    public <T> T execute(Collection<String> accountNumbers, Supplier<T> work) {
+        return withLock(accountNumbers, () -> executeWithoutLock(work));
+    }
+
+    /**
+     * Holds the account lock around {@code work} without opening a
+     * transaction; for checks that must not race a posting to the same account.
+     */
+    public <T> T withLock(String accountNumber, Supplier<T> work) {
+        return withLock(List.of(accountNumber), work);
+    }
+
+    private <T> T withLock(Collection<String> accountNumbers, Supplier<T> work) {
+        int[] indexes = accountNumbers.stream().mapToInt(this::stripeOf).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new RuntimeException("Account is busy, please retry");
+                }
+                locked++;
+            }
+            return work.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for account lock");
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) stripes[indexes[i]].unlock();
+        }
+    }
+
+    /**
+     * Same transaction and retry handling, without the account lock; for
+     * postings that do not contend on a single row.
+     */
+    public <T> T executeWithoutLock(Supplier<T> work) {
+        try {
+            return executeWithRetry(work);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying posting");
+        }
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    private <T> T executeWithRetry(Supplier<T> work) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    failures.incrementAndGet();
+                    throw e;
+                }
+                retries.incrementAndGet();
+                // Jittered exponential backoff: 1-2ms, 2-4ms, 4-8ms, ...
+                long base = 1L << Math.min(attempt - 1, 6);
+                Thread.sleep(base + ThreadLocalRandom.current().nextLong(base + 1));
+            }
+        }
+    }
+
+    private int stripeOf(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), stripes.length);
+    }
+}
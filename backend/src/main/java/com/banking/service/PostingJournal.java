@@ -0,0 +1,477 @@
+package com.banking.service;
+
+import com.banking.dto.AccountDTO;
+import com.banking.entity.BankAccount;
+import com.banking.entity.Transaction;
+import com.banking.repository.BankAccountRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journaled posting mode. Deposits and withdrawals are appended to a local
+ * write-ahead journal and acknowledged once it is flushed to disk; the
+ * {@link JournalApplier} posts them to the database in the background.
+ *
+ * The journal is a series of memory-mapped segment files named after their
+ * first sequence. Each record is {@code [length][crc32][payload]}; a zero
+ * length marks the end of the written data. Records are encoded and
+ * size-checked on the request thread, so a posting that cannot be journaled is
+ * refused there; the single writer thread only stamps in the sequence, copies
+ * the bytes and group-commits: it forces the segment to disk once it has
+ * {@code group-commit-entries} records or {@code group-commit-ms} has passed
+ * since the first one, then completes every waiting request.
+ *
+ * On startup the segments are scanned up to the first torn or corrupt record,
+ * entries past the applied checkpoint are handed to the applier, and writing
+ * resumes after the last good record. Segments whose entries are all applied
+ * are deleted on rollover.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "banking.journal.enabled", havingValue = "true")
+public class PostingJournal {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String ID_FILE = "journal.id";
+    // Limits of the columns the applier writes, checked before a posting is acknowledged
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final int AMOUNT_PRECISION = 15;
+    private static final int AMOUNT_SCALE = 2;
+    private static final BigDecimal MAX_BALANCE = BigDecimal.TEN.pow(AMOUNT_PRECISION - AMOUNT_SCALE)
+            .subtract(BigDecimal.ONE.movePointLeft(AMOUNT_SCALE));
+
+    private final BankAccountRepository accountRepository;
+    private final ShardedBalanceService shardedBalances;
+    private final PostingExecutor postingExecutor;
+    private final JournalApplier applier;
+    private final PostingMetrics postingMetrics;
+
+    @Value("${banking.journal.dir:./journal}")
+    private String directory;
+
+    @Value("${banking.journal.segment-size:67108864}")
+    private int segmentSize;
+
+    @Value("${banking.journal.group-commit-ms:2}")
+    private long groupCommitMs;
+
+    @Value("${banking.journal.group-commit-entries:256}")
+    private int groupCommitEntries;
+
+    @Value("${banking.journal.ack-timeout-ms:5000}")
+    private long ackTimeoutMs;
+
+    // claimable is cleared either by the writer taking the entry or by the request giving up on it, never both
+    private record PendingAppend(JournalEntry entry, byte[] payload, CompletableFuture<JournalEntry> acked,
+                                 AtomicBoolean claimable) {
+    }
+
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        MappedByteBuffer buffer;
+        long lastSequence;
+
+        Segment(Path path, FileChannel channel, MappedByteBuffer buffer, long lastSequence) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.lastSequence = lastSequence;
+        }
+
+        // Drops the mapping so it can be unmapped before the file is deleted
+        void close() throws IOException {
+            channel.close();
+            buffer = null;
+        }
+    }
+
+    private final BlockingQueue<PendingAppend> queue = new LinkedBlockingQueue<>();
+    // Writer-thread state
+    private final List<Segment> closedSegments = new ArrayList<>();
+    private Segment active;
+    private volatile long lastSequence;
+
+    private volatile Exception failure;
+    private volatile boolean running;
+    private Thread writer;
+
+    public PostingJournal(BankAccountRepository accountRepository, ShardedBalanceService shardedBalances,
+                          PostingExecutor postingExecutor, JournalApplier applier, PostingMetrics postingMetrics) {
+        this.accountRepository = accountRepository;
+        this.shardedBalances = shardedBalances;
+        this.postingExecutor = postingExecutor;
+        this.applier = applier;
+        this.postingMetrics = postingMetrics;
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        long applied = applier.loadCheckpoint(journalId(dir, !files.isEmpty()));
+        lastSequence = applied;
+
+        int replayed = 0;
+        for (Iterator<Path> it = files.iterator(); it.hasNext(); ) {
+            Path file = it.next();
+            Segment segment = open(file, firstSequenceOf(file) - 1);
+            MappedByteBuffer buffer = segment.buffer;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int start = buffer.position();
+                JournalEntry entry = readRecord(buffer);
+                if (entry == null || entry.getSequence() != segment.lastSequence + 1) {
+                    buffer.position(start);
+                    break;
+                }
+                segment.lastSequence = entry.getSequence();
+                if (entry.getSequence() > applied) {
+                    if (entry.getType() == Transaction.TransactionType.WITHDRAW) {
+                        applier.reserve(entry.getAccountNumber(), entry.getAmount());
+                    }
+                    applier.enqueue(entry);
+                    replayed++;
+                }
+            }
+            lastSequence = Math.max(lastSequence, segment.lastSequence);
+            if (it.hasNext()) {
+                segment.close();
+                closedSegments.add(segment);
+            } else {
+                // Clear whatever a torn write left behind the last good record
+                for (int i = buffer.position(); i < buffer.capacity(); i++) buffer.put(i, (byte) 0);
+                active = segment;
+            }
+        }
+        // A checkpoint ahead of the files (journal directory lost or restored) starts a fresh segment
+        if (active == null || active.lastSequence < lastSequence) {
+            if (active != null) {
+                active.close();
+                closedSegments.add(active);
+            }
+            active = open(segmentPath(lastSequence + 1), lastSequence);
+        }
+        deleteAppliedSegments();
+        if (replayed > 0) log.info("Replaying {} journal entries after sequence {}", replayed, applied);
+
+        applier.start();
+        running = true;
+        writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException, IOException {
+        running = false;
+        if (writer != null) writer.join(TimeUnit.SECONDS.toMillis(10));
+        applier.stop();
+        if (active != null) active.close();
+    }
+
+    public AccountDTO.TransactionResponse deposit(AccountDTO.TransactionRequest request, Long performedBy) {
+        requireStorable(request);
+        BankAccount account = requireActive(request.getAccountNumber(), PostingMetrics.Operation.DEPOSIT);
+        if (shardedBalances.totalBalance(account).add(request.getAmount()).compareTo(MAX_BALANCE) > 0) {
+            throw new RuntimeException("Deposit would exceed the maximum account balance");
+        }
+        AccountDTO.TransactionResponse response =
+                toResponse(append(entryOf(Transaction.TransactionType.DEPOSIT, request, performedBy)));
+        postingMetrics.postedAfterCommit(PostingMetrics.Operation.DEPOSIT, request.getAmount());
+        return response;
+    }
+
+    /**
+     * Acknowledged only if the account's balance, less withdrawals already
+     * acknowledged but not yet applied, covers the amount. The check and the
+     * append run under the account lock so two withdrawals cannot both pass.
+     */
+    public AccountDTO.TransactionResponse withdraw(AccountDTO.TransactionRequest request, Long performedBy) {
+        requireStorable(request);
+        return postingExecutor.withLock(request.getAccountNumber(), () -> {
+            BankAccount account = requireActive(request.getAccountNumber(), PostingMetrics.Operation.WITHDRAWAL);
+            BigDecimal available = shardedBalances.totalBalance(account)
+                    .subtract(applier.pendingDebits(request.getAccountNumber()));
+            if (available.compareTo(request.getAmount()) < 0) {
+                throw postingMetrics.rejected(PostingMetrics.Operation.WITHDRAWAL, PostingMetrics.Reason.INSUFFICIENT_BALANCE);
+            }
+
+            applier.reserve(request.getAccountNumber(), request.getAmount());
+            try {
+                AccountDTO.TransactionResponse response =
+                        toResponse(append(entryOf(Transaction.TransactionType.WITHDRAW, request, performedBy)));
+                postingMetrics.postedAfterCommit(PostingMetrics.Operation.WITHDRAWAL, request.getAmount());
+                return response;
+            } catch (RuntimeException e) {
+                applier.release(request.getAccountNumber(), request.getAmount());
+                throw e;
+            }
+        });
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getAppliedSequence() {
+        return applier.getAppliedSequence();
+    }
+
+    // Acknowledged withdrawals not yet in the database; callers must hold the account lock
+    public BigDecimal pendingDebits(String accountNumber) {
+        return applier.pendingDebits(accountNumber);
+    }
+
+    /**
+     * Acknowledgement time, in epoch millis, of the oldest posting not yet in
+     * the database; {@code Long.MAX_VALUE} if there is none. Applied postings
+     * keep that time as their {@code created_at}.
+     */
+    public long getOldestUnappliedMillis() {
+        return applier.oldestUnappliedMillis();
+    }
+
+    public int getApplyBacklog() {
+        return applier.getBacklog();
+    }
+
+    /**
+     * Refuses a posting the database would reject once it is applied: an
+     * acknowledged entry cannot be turned down any more.
+     */
+    private static void requireStorable(AccountDTO.TransactionRequest request) {
+        BigDecimal amount = request.getAmount();
+        if (amount == null || amount.signum() <= 0) throw new RuntimeException("Amount must be positive");
+        if (amount.stripTrailingZeros().scale() > AMOUNT_SCALE) {
+            throw new RuntimeException("Amount must have at most " + AMOUNT_SCALE + " decimal places");
+        }
+        if (amount.compareTo(MAX_BALANCE) > 0) throw new RuntimeException("Amount is too large");
+        if (request.getDescription() != null && request.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new RuntimeException("Description must be at most " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+    }
+
+    private BankAccount requireActive(String accountNumber, PostingMetrics.Operation operation) {
+        BankAccount account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> postingMetrics.rejected(operation, PostingMetrics.Reason.NOT_FOUND));
+        if (!account.getIsActive()) throw postingMetrics.rejected(operation, PostingMetrics.Reason.INACTIVE);
+        return account;
+    }
+
+    private JournalEntry append(JournalEntry entry) {
+        byte[] payload = encode(entry);
+        if (failure != null || !running) throw new RuntimeException("Posting journal is unavailable");
+        PendingAppend pending = new PendingAppend(entry, payload, new CompletableFuture<>(), new AtomicBoolean(true));
+        queue.add(pending);
+        try {
+            try {
+                return pending.acked().get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Withdrawn before the writer reached it: never written, safe to report as failed
+                if (pending.claimable().compareAndSet(true, false)) throw new RuntimeException("Journal is busy, please retry");
+                return pending.acked().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for journal");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Journal write failed");
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(groupCommitEntries);
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMs);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < groupCommitEntries) {
+                    queue.drainTo(batch, groupCommitEntries - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= groupCommitEntries || wait <= 0) break;
+                    PendingAppend next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                groupCommit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException e) {
+                // Fail stop: what reached the disk is unknown, so accept nothing more until restart
+                failure = e;
+                log.error("Posting journal write failed; journaled postings are disabled until restart", e);
+                batch.forEach(pending -> pending.acked().completeExceptionally(e));
+                queue.forEach(pending -> pending.acked().completeExceptionally(e));
+                queue.clear();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void groupCommit(List<PendingAppend> batch) throws IOException {
+        List<JournalEntry> written = new ArrayList<>(batch.size());
+        List<PendingAppend> claimed = new ArrayList<>(batch.size());
+        for (PendingAppend pending : batch) {
+            if (!pending.claimable().compareAndSet(true, false)) continue;
+            claimed.add(pending);
+            JournalEntry entry = pending.entry().withSequence(lastSequence + 1);
+            byte[] payload = pending.payload();
+            JournalEntry.stampSequence(payload, entry.getSequence());
+            if (active.buffer.remaining() < HEADER_BYTES + payload.length) roll(entry.getSequence());
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            active.buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            active.lastSequence = lastSequence = entry.getSequence();
+            written.add(entry);
+        }
+        if (written.isEmpty()) return;
+        active.buffer.force();
+        for (int i = 0; i < written.size(); i++) {
+            applier.enqueue(written.get(i));
+            claimed.get(i).acked().complete(written.get(i));
+        }
+    }
+
+    private void roll(long nextSequence) throws IOException {
+        active.buffer.force();
+        active.close();
+        closedSegments.add(active);
+        active = open(segmentPath(nextSequence), nextSequence - 1);
+        deleteAppliedSegments();
+    }
+
+    private void deleteAppliedSegments() {
+        long applied = applier.getAppliedSequence();
+        for (Iterator<Segment> it = closedSegments.iterator(); it.hasNext(); ) {
+            Segment segment = it.next();
+            if (segment.lastSequence > applied) continue;
+            try {
+                Files.deleteIfExists(segment.path);
+                it.remove();
+            } catch (IOException e) {
+                // Still mapped on some platforms; tried again on the next rollover
+            }
+        }
+    }
+
+    /**
+     * Names this journal's checkpoint row. Every node has its own journal, so
+     * the id is generated once and kept in the journal directory; a directory
+     * written before the id existed keeps the original shared row.
+     */
+    private static String journalId(Path dir, boolean hasSegments) throws IOException {
+        Path file = dir.resolve(ID_FILE);
+        if (Files.exists(file)) return Files.readString(file).trim();
+        String id = hasSegments ? JournalApplier.LEGACY_CHECKPOINT : "journal-" + UUID.randomUUID();
+        Files.writeString(file, id, StandardOpenOption.CREATE_NEW, StandardOpenOption.SYNC);
+        return id;
+    }
+
+    private Segment open(Path path, long lastSequence) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        return new Segment(path, channel, buffer, lastSequence);
+    }
+
+    // Null at the end of the written data or at a torn or corrupt record
+    private static JournalEntry readRecord(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining()) return null;
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) return null;
+        try {
+            return JournalEntry.decode(payload);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return Paths.get(directory, String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private byte[] encode(JournalEntry entry) {
+        byte[] payload;
+        try {
+            payload = entry.encode();
+        } catch (UncheckedIOException e) {
+            // writeUTF limits each string to 65535 bytes
+            throw new RuntimeException("Posting cannot be journaled: " + e.getCause().getMessage());
+        }
+        if (HEADER_BYTES + payload.length > segmentSize) throw new RuntimeException("Posting is too large for the journal");
+        return payload;
+    }
+
+    private static JournalEntry entryOf(Transaction.TransactionType type, AccountDTO.TransactionRequest request,
+                                        Long performedBy) {
+        return new JournalEntry(0, type, request.getAccountNumber(), request.getAmount(),
+                request.getDescription(), performedBy, System.currentTimeMillis());
+    }
+
+    private static AccountDTO.TransactionResponse toResponse(JournalEntry entry) {
+        AccountDTO.TransactionResponse r = new AccountDTO.TransactionResponse();
+        r.setJournalSequence(entry.getSequence());
+        r.setTransactionType(entry.getType().name());
+        r.setAmount(entry.getAmount());
+        r.setDescription(entry.getDescription());
+        r.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.getCreatedAtMillis()), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        r.setAccountNumber(entry.getAccountNumber());
+        return r;
+    }
+}
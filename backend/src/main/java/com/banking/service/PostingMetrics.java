@@ -0,0 +1,93 @@
+package com.banking.service;
+
+import com.banking.entity.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Domain meters for postings: {@code banking.postings.amount} (tag
+ * {@code operation}) counts committed postings into amount buckets, and
+ * {@code banking.postings.rejected} (tags {@code operation}, {@code reason})
+ * counts postings turned down by a business rule. Every meter is registered
+ * up front, so recording is a lookup-free increment.
+ */
+@Component
+public class PostingMetrics {
+
+    public enum Operation {
+        DEPOSIT, WITHDRAWAL, TRANSFER, PIN_SESSION
+    }
+
+    public enum Reason {
+        NOT_FOUND("Account not found"),
+        INACTIVE("Account is not active"),
+        INSUFFICIENT_BALANCE("Insufficient balance"),
+        INVALID_PIN("Invalid PIN"),
+        INVALID_PIN_SESSION("PIN session is invalid or expired"),
+        PIN_REQUIRED("PIN or PIN session is required"),
+        NOT_OWNER("Account does not belong to the caller");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+    }
+
+    // Bucket bounds in account currency
+    private static final double[] AMOUNT_BUCKETS = {10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final Map<Operation, DistributionSummary> amounts = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Reason, Counter>> rejections = new EnumMap<>(Operation.class);
+
+    public PostingMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            String tag = operation.name().toLowerCase();
+            if (operation != Operation.PIN_SESSION) {
+                amounts.put(operation, DistributionSummary.builder("banking.postings.amount")
+                        .tag("operation", tag)
+                        .serviceLevelObjectives(AMOUNT_BUCKETS)
+                        .register(meterRegistry));
+            }
+            Map<Reason, Counter> byReason = new EnumMap<>(Reason.class);
+            for (Reason reason : Reason.values()) {
+                byReason.put(reason, Counter.builder("banking.postings.rejected")
+                        .tag("operation", tag)
+                        .tag("reason", reason.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            rejections.put(operation, byReason);
+        }
+    }
+
+    /**
+     * Counts the rejection and returns the exception to throw for it.
+     */
+    public RuntimeException rejected(Operation operation, Reason reason) {
+        rejections.get(operation).get(reason).increment();
+        return new RuntimeException(reason.message);
+    }
+
+    public void postedAfterCommit(Operation operation, BigDecimal amount) {
+        AfterCommit.run(() -> amounts.get(operation).record(amount.doubleValue()));
+    }
+
+    // Batch lines, counted together once the chunk commits
+    public void postedAfterCommit(List<Transaction> postings) {
+        if (postings.isEmpty()) return;
+        AfterCommit.run(() -> {
+            for (Transaction posting : postings) {
+                Operation operation = posting.getTransactionType() == Transaction.TransactionType.DEPOSIT
+                        ? Operation.DEPOSIT : Operation.WITHDRAWAL;
+                amounts.get(operation).record(posting.getAmount().doubleValue());
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.service;
+
+import com.banking.repository.BankAccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws random numbers and probes the database until an unused one is found.
+ * Needs no range table, at the cost of at least one query per account.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.account-number.allocator", havingValue = "random")
+public class RandomAccountNumberAllocator implements AccountNumberAllocator {
+
+    private final BankAccountRepository accountRepository;
+
+    @Override
+    public String next() {
+        String number;
+        do {
+            number = AccountNumbers.withCheckDigit(ThreadLocalRandom.current().nextLong(10_000_000_000L, 100_000_000_000L));
+        } while (accountRepository.existsByAccountNumber(number));
+        return number;
+    }
+}
@@ -0,0 +1,42 @@
+package com.banking.service;
+
+import com.banking.security.JwtClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+/**
+ * Users who posted in the last {@code pin-ms} have their reads served by the
+ * primary, so they never see a replica that has not caught up with their own
+ * posting yet.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final Cache<Long, Boolean> pinnedUsers;
+
+    public ReadYourWrites(@Value("${banking.read-replicas.pin-ms:5000}") long pinMs) {
+        this.pinnedUsers = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(pinMs))
+                .build();
+    }
+
+    public void pinAfterCommit(Long userId) {
+        if (userId != null) AfterCommit.run(() -> pinnedUsers.put(userId, Boolean.TRUE));
+    }
+
+    // Whether the user of the request on this thread, if any, must read from the primary
+    public boolean isCurrentUserPinned() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) return false;
+        Object claims = request.getAttribute(JwtClaims.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return claims instanceof JwtClaims jwt && jwt.getUserId() != null
+                && pinnedUsers.getIfPresent(jwt.getUserId()) != null;
+    }
+}
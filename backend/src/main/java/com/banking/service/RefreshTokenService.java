@@ -0,0 +1,90 @@
+package com.banking.service;
+
+import com.banking.entity.RefreshToken;
+import com.banking.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Opaque, single-use refresh tokens. Only a SHA-256 of each token is stored,
+ * so renewing an access token costs one indexed lookup instead of a BCrypt
+ * verify. Presenting an already used token revokes every refresh token of
+ * that user.
+ */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshExpiration;
+
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userId(userId)
+                .tokenHash(hash(token))
+                .expiresAt(LocalDateTime.now().plus(refreshExpiration, ChronoUnit.MILLIS))
+                .revoked(false)
+                .build());
+        return token;
+    }
+
+    /**
+     * Marks the token as used and returns the id of the user it was issued to.
+     * The conditional update lets exactly one of two concurrent refreshes with
+     * the same token win; the other is treated as reuse.
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Long consume(String token) {
+        String tokenHash = hash(token);
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token expired");
+        }
+        if (refreshTokenRepository.markUsed(tokenHash) == 0) {
+            refreshTokenRepository.revokeAllForUser(stored.getUserId());
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        return stored.getUserId();
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-purge-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
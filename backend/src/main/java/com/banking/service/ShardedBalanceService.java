@@ -0,0 +1,174 @@
+package com.banking.service;
+
+import com.banking.entity.AccountBalanceShard;
+import com.banking.entity.BankAccount;
+import com.banking.repository.AccountBalanceShardRepository;
+import com.banking.repository.BankAccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in sharded balances for hot collection accounts. Deposits to a sharded
+ * account are spread round-robin over N slot rows in account_balance_shards
+ * and never touch the bank_accounts row, so they do not queue behind one row
+ * lock. The balance is the account row plus the sum of its slots.
+ *
+ * Withdrawals lock the account row and then the slots in slot order, and drain
+ * the account row first, then slot 0, 1, ... A periodic compactor folds the
+ * slots back into the account row.
+ *
+ * Crediting the account row directly is always correct, so a node whose view
+ * of which accounts are sharded is briefly stale only loses the speed-up.
+ *
+ * A slot credit reads the account's total for {@code balance_after} while it
+ * holds its slot lock. That read must not wait on the other slots or on the
+ * account row, or deposits queue again and deadlock with withdrawals and the
+ * compactor, so on SQL Server deposits go to the account row unless the
+ * database has READ_COMMITTED_SNAPSHOT on.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardedBalanceService {
+
+    private final BankAccountRepository accountRepository;
+    private final AccountBalanceShardRepository shardRepository;
+    private final PostingExecutor postingExecutor;
+    private final PostingMetrics postingMetrics;
+
+    private volatile Map<String, ShardedAccount> shardedAccounts = Map.of();
+    private volatile Boolean snapshotReads;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    private record ShardedAccount(Long accountId, int slots) {
+    }
+
+    public boolean isSharded(String accountNumber) {
+        return shardedAccounts.containsKey(accountNumber);
+    }
+
+    /**
+     * Credits one slot. Empty if the account is no longer sharded or active, or
+     * the database cannot read the total without blocking, in which case the
+     * caller should post to the account row instead.
+     */
+    public Optional<BankAccountRepository.PostedBalance> credit(String accountNumber, BigDecimal amount) {
+        ShardedAccount sharded = shardedAccounts.get(accountNumber);
+        if (sharded == null || !Boolean.TRUE.equals(snapshotReads)) return Optional.empty();
+        int slot = Math.floorMod(roundRobin.getAndIncrement(), sharded.slots());
+        if (!accountRepository.creditShard(sharded.accountId(), slot, amount)) return Optional.empty();
+        return Optional.of(new BankAccountRepository.PostedBalance(sharded.accountId(),
+                accountRepository.getTotalBalanceById(sharded.accountId())));
+    }
+
+    /**
+     * Debits a sharded account; must run inside a transaction.
+     */
+    public BankAccountRepository.PostedBalance debit(String accountNumber, BigDecimal amount) {
+        BankAccount account = accountRepository.findForUpdate(accountNumber)
+                .orElseThrow(() -> postingMetrics.rejected(PostingMetrics.Operation.WITHDRAWAL, PostingMetrics.Reason.NOT_FOUND));
+        if (!account.getIsActive()) {
+            throw postingMetrics.rejected(PostingMetrics.Operation.WITHDRAWAL, PostingMetrics.Reason.INACTIVE);
+        }
+
+        if (account.getBalance().compareTo(amount) >= 0) {
+            BigDecimal total = account.getBalance().add(shardRepository.sumByAccountId(account.getId()));
+            account.setBalance(account.getBalance().subtract(amount));
+            return new BankAccountRepository.PostedBalance(account.getId(), total.subtract(amount));
+        }
+
+        List<AccountBalanceShard> shards = shardRepository.findByAccountIdOrderBySlotAsc(account.getId());
+        BigDecimal total = shards.stream().map(AccountBalanceShard::getBalance).reduce(account.getBalance(), BigDecimal::add);
+        if (total.compareTo(amount) < 0) {
+            throw postingMetrics.rejected(PostingMetrics.Operation.WITHDRAWAL, PostingMetrics.Reason.INSUFFICIENT_BALANCE);
+        }
+
+        BigDecimal remaining = amount.subtract(account.getBalance());
+        account.setBalance(BigDecimal.ZERO);
+        for (AccountBalanceShard shard : shards) {
+            if (remaining.signum() == 0) break;
+            BigDecimal taken = shard.getBalance().min(remaining);
+            shard.setBalance(shard.getBalance().subtract(taken));
+            remaining = remaining.subtract(taken);
+        }
+        return new BankAccountRepository.PostedBalance(account.getId(), total.subtract(amount));
+    }
+
+    public BigDecimal totalBalance(BankAccount account) {
+        if (account.getBalanceShards() == null || account.getBalanceShards() == 0) return account.getBalance();
+        return account.getBalance().add(shardRepository.sumByAccountId(account.getId()));
+    }
+
+    /**
+     * Switches sharding on with {@code slots} slots, or off when {@code slots}
+     * is 0. Existing slots are folded into the account row first.
+     */
+    public void configure(Long accountId, int slots) {
+        if (slots < 0) throw new RuntimeException("Slot count must not be negative");
+        BankAccount account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        postingExecutor.execute(account.getAccountNumber(), () -> {
+            BankAccount locked = fold(account.getAccountNumber());
+            // Slots are all zero now; keep the ones still in range so no (account_id, slot) row is re-inserted
+            List<AccountBalanceShard> existing = shardRepository.findByAccountIdOrderBySlotAsc(locked.getId());
+            existing.stream().filter(shard -> shard.getSlot() >= slots).forEach(shardRepository::delete);
+            for (int slot = existing.size(); slot < slots; slot++) {
+                shardRepository.save(AccountBalanceShard.builder()
+                        .accountId(locked.getId()).slot(slot).balance(BigDecimal.ZERO).build());
+            }
+            locked.setBalanceShards(slots);
+            return null;
+        });
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.sharding.compact-interval:60000}")
+    public void compact() {
+        for (String accountNumber : shardedAccounts.keySet()) {
+            postingExecutor.execute(accountNumber, () -> fold(accountNumber));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.sharding.refresh-interval:30000}")
+    public void refresh() {
+        if (snapshotReads == null) {
+            snapshotReads = accountRepository.readsCommittedSnapshot();
+            if (!snapshotReads) {
+                log.warn("READ_COMMITTED_SNAPSHOT is off; sharded accounts take deposits on the account row");
+            }
+        }
+        shardedAccounts = accountRepository.findByBalanceShardsGreaterThan(0).stream()
+                .collect(Collectors.toUnmodifiableMap(BankAccount::getAccountNumber,
+                        a -> new ShardedAccount(a.getId(), a.getBalanceShards())));
+    }
+
+    private BankAccount fold(String accountNumber) {
+        BankAccount account = accountRepository.findForUpdate(accountNumber)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+        fold(account);
+        return account;
+    }
+
+    /**
+     * Moves every slot balance into the row of an account already locked by the
+     * caller's transaction.
+     */
+    public void fold(BankAccount account) {
+        BigDecimal folded = BigDecimal.ZERO;
+        for (AccountBalanceShard shard : shardRepository.findByAccountIdOrderBySlotAsc(account.getId())) {
+            folded = folded.add(shard.getBalance());
+            shard.setBalance(BigDecimal.ZERO);
+        }
+        if (folded.signum() != 0) account.setBalance(account.getBalance().add(folded));
+    }
+}
@@ -0,0 +1,82 @@
+package com.banking.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one. The first caller runs
+ * the load; callers arriving while it is in flight wait on its future and get
+ * the same result or exception. Nothing is cached: once the load finishes the
+ * next caller starts a new one.
+ *
+ * Waiters park on a {@link CompletableFuture} and no monitor is held while a
+ * load runs, so virtual threads are never pinned.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    private final String name;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            collapsed.incrementAndGet();
+            return await(leader);
+        }
+        loads.incrementAndGet();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    public long getCollapsed() {
+        return collapsed.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.singleflight.loads", loads, AtomicLong::get)
+                .tag("name", name)
+                .description("Loads that went to the database")
+                .register(registry);
+        FunctionCounter.builder("banking.singleflight.collapsed", collapsed, AtomicLong::get)
+                .tag("name", name)
+                .description("Calls served by a load already in flight")
+                .register(registry);
+    }
+
+    private static <V> V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+}
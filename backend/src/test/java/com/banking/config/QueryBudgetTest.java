@@ -0,0 +1,95 @@
+package com.banking.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Loads the teller's account list and a transaction page on the seeded perf
+ * data with {@code fail-on-exceed} on, so a change that makes either endpoint
+ * issue a statement per row (N+1) fails here instead of in production. There
+ * are more banks than the budget allows statements, so a lazy bank lookup per
+ * account goes over too.
+ */
+@SpringBootTest(properties = {
+        "banking.perf.banks=40",
+        "banking.perf.tellers=1",
+        "banking.perf.clients=30",
+        "banking.perf.transactions-per-account=40",
+        "banking.query-budget.fail-on-exceed=true",
+        "banking.query-budget.max-statements=25"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("perf")
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QueryBudgetProperties properties;
+
+    private String token;
+
+    @BeforeEach
+    void logIn() throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"teller1\",\"password\":\"perf123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = objectMapper.readTree(body).get("token").asText();
+    }
+
+    @Test
+    void accountListStaysWithinBudget() throws Exception {
+        JsonNode accounts = getJson("/api/teller/accounts");
+
+        // One statement per account would be well over the budget
+        assertThat(accounts.size()).isGreaterThan(properties.getMaxStatements());
+    }
+
+    @Test
+    void transactionPageStaysWithinBudget() throws Exception {
+        String accountNumber = getJson("/api/teller/accounts").get(0).get("accountNumber").asText();
+
+        JsonNode page = getJson("/api/teller/accounts/" + accountNumber + "/transactions");
+
+        assertThat(page.get("items").size()).isGreaterThan(properties.getMaxStatements());
+    }
+
+    @Test
+    void requestOverBudgetFails() {
+        int maxStatements = properties.getMaxStatements();
+        properties.setMaxStatements(0);
+        try {
+            assertThatThrownBy(() -> getJson("/api/teller/accounts"))
+                    .hasStackTraceContaining("Query budget exceeded");
+        } finally {
+            properties.setMaxStatements(maxStatements);
+        }
+    }
+
+    private JsonNode getJson(String path) throws Exception {
+        String body = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,137 @@
+package com.banking.config;
+
+import com.banking.dto.AccountDTO;
+import com.banking.repository.BankAccountRepository;
+import com.banking.security.JwtClaims;
+import com.banking.service.AccountService;
+import com.banking.service.ReadYourWrites;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes transaction pages through {@code replicas-local} with a single
+ * replica copied from the perf data, and checks where each read went by the
+ * {@code banking.datasource.reads} counters. Scheduled jobs that read run once
+ * at startup and then not again during the test, so only the reads made here
+ * move the counters.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;MODE=MSSQLServer;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+        "banking.read-replicas.replicas[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+        "banking.read-replicas.replicas[0].username=sa",
+        "banking.read-replicas.replicas[0].password=",
+        "banking.read-replicas.health-interval-ms=3600000",
+        "banking.dashboard.reconcile-interval=3600000",
+        "banking.sharding.refresh-interval=3600000",
+        "banking.sharding.compact-interval=3600000",
+        "banking.snapshots.interval=3600000",
+        "jwt.revocation.refresh-interval=3600000",
+        "banking.perf.banks=1",
+        "banking.perf.tellers=1",
+        "banking.perf.clients=2",
+        "banking.perf.transactions-per-account=5"
+})
+@ActiveProfiles({"perf", "replicas-local"})
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MSSQLServer;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void replicaHealthy() {
+        replicaRouter.checkHealth();
+        accountNumber = accountRepository.findAll().get(0).getAccountNumber();
+    }
+
+    @Test
+    void readOnlyCallReadsFromReplica() {
+        double replica = reads("replica");
+        double primary = reads("primary");
+
+        AccountDTO.TransactionPage page = accountService.getTransactions(accountNumber, new AccountDTO.TransactionQuery());
+
+        assertThat(page.getItems()).isNotEmpty();
+        assertThat(reads("replica")).isEqualTo(replica + 1);
+        assertThat(reads("primary")).isEqualTo(primary);
+    }
+
+    @Test
+    void pinnedUserReadsFromPrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(JwtClaims.REQUEST_ATTRIBUTE,
+                new JwtClaims("teller1", 42L, "TELLER", new Date(), new Date(System.currentTimeMillis() + 60_000)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            readYourWrites.pinAfterCommit(42L);
+            double replica = reads("replica");
+            double primary = reads("primary");
+
+            accountService.getTransactions(accountNumber, new AccountDTO.TransactionQuery());
+
+            assertThat(reads("primary")).isEqualTo(primary + 1);
+            assertThat(reads("replica")).isEqualTo(replica);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimary() throws Exception {
+        // The lag query reads the seeding marker, so without it the health check fails
+        replica("ALTER TABLE " + LocalReplicaSeeder.MARKER + " RENAME TO seeding_marker_hidden");
+        try {
+            replicaRouter.checkHealth();
+            double replica = reads("replica");
+            double primary = reads("primary");
+
+            accountService.getTransactions(accountNumber, new AccountDTO.TransactionQuery());
+
+            assertThat(reads("primary")).isEqualTo(primary + 1);
+            assertThat(reads("replica")).isEqualTo(replica);
+        } finally {
+            replica("ALTER TABLE seeding_marker_hidden RENAME TO " + LocalReplicaSeeder.MARKER);
+            replicaRouter.checkHealth();
+        }
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("banking.datasource.reads").tag("target", target).counter().count();
+    }
+
+    private static void replica(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
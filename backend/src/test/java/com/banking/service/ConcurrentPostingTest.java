@@ -0,0 +1,97 @@
+package com.banking.service;
+
+import com.banking.dto.AccountDTO;
+import com.banking.repository.BankAccountRepository;
+import com.banking.repository.UserRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deposits and withdrawals from many threads on one account, the case where a
+ * lost update or a missing lock shows up as a wrong balance or a missing
+ * ledger row. Runs the same postings the JMH {@code PostingBenchmark} does,
+ * but as a pass/fail check in the build.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent-posting;MODE=MSSQLServer;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+        "banking.perf.banks=1",
+        "banking.perf.tellers=1",
+        "banking.perf.clients=1",
+        "banking.perf.transactions-per-account=1"
+})
+@ActiveProfiles("perf")
+class ConcurrentPostingTest {
+
+    private static final BigDecimal OPENING = new BigDecimal("1000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final int POSTINGS_PER_THREAD = 20;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @ValueSource(ints = {8, 64})
+    void concurrentPostingsOnOneAccountAddUp(int threads) throws Exception {
+        Long clientId = userRepository.findByUsername("client1").orElseThrow().getId();
+        AccountDTO.CreateAccountRequest create = new AccountDTO.CreateAccountRequest();
+        create.setUserId(clientId);
+        create.setName("Concurrent " + threads);
+        create.setInitialDeposit(OPENING);
+        String accountNumber = accountService.createAccount(create).getAccountNumber();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                // Even threads deposit, odd threads withdraw
+                boolean deposit = t % 2 == 0;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < POSTINGS_PER_THREAD; i++) {
+                        AccountDTO.TransactionRequest request = new AccountDTO.TransactionRequest();
+                        request.setAccountNumber(accountNumber);
+                        request.setAmount(AMOUNT);
+                        if (deposit) accountService.deposit(request, clientId);
+                        else accountService.withdraw(request, clientId);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) result.get();
+        }
+
+        int depositThreads = (threads + 1) / 2;
+        int withdrawThreads = threads / 2;
+        BigDecimal expected = OPENING.add(AMOUNT.multiply(
+                BigDecimal.valueOf((long) (depositThreads - withdrawThreads) * POSTINGS_PER_THREAD)));
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber).orElseThrow();
+        assertThat(accountRepository.getTotalBalanceById(accountId)).isEqualByComparingTo(expected);
+        // The opening deposit plus one row per posting
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?",
+                Long.class, accountId)).isEqualTo(1L + (long) threads * POSTINGS_PER_THREAD);
+    }
+}
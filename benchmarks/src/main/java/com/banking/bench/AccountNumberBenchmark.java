@@ -0,0 +1,55 @@
+package com.banking.bench;
+
+import com.banking.service.AccountNumberAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * New account numbers from each allocator: {@code block} hands out numbers
+ * from a leased range and only touches the database once per block,
+ * {@code random} checks every candidate for a collision.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AccountNumberBenchmark {
+
+    @Param({"block", "random"})
+    public String allocator;
+
+    private EmbeddedBank bank;
+    private AccountNumberAllocator numbers;
+
+    @Setup
+    public void setUp() {
+        bank = new EmbeddedBank("--banking.account-number.allocator=" + allocator);
+        numbers = bank.bean(AccountNumberAllocator.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Benchmark
+    public String next() {
+        return numbers.next();
+    }
+}
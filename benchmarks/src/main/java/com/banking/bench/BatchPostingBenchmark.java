@@ -0,0 +1,120 @@
+package com.banking.bench;
+
+import com.banking.dto.AccountDTO;
+import com.banking.entity.BankAccount;
+import com.banking.entity.Transaction;
+import com.banking.repository.BankAccountRepository;
+import com.banking.service.BatchPostingService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ledger inserts per second through the bulk posting path: each invocation
+ * posts one chunk-sized batch of alternating deposits and withdrawals over
+ * 50 accounts, written as pooled-id batched inserts.
+ *
+ * {@code insertPooled} and {@code insertIdentity} isolate the id strategy:
+ * both persist the same chunk of ledger rows in one transaction, the first as
+ * {@link Transaction} (pooled sequence, batched), the second as
+ * {@link IdentityTransaction} (IDENTITY, one round trip per row) as it was
+ * before the change.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchPostingBenchmark {
+
+    private static final int LINES = 500;
+
+    private EmbeddedBank bank;
+    private BatchPostingService batchPostingService;
+    private List<AccountDTO.BatchPostingLine> batch;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private List<Long> accountIds;
+
+    @Setup
+    public void setUp() {
+        bank = new EmbeddedBank();
+        batchPostingService = bank.bean(BatchPostingService.class);
+        List<String> numbers = bank.openAccounts(50, new BigDecimal("1000000.00"), null);
+        batch = new ArrayList<>(LINES);
+        for (int i = 0; i < LINES; i++) {
+            AccountDTO.BatchPostingLine line = new AccountDTO.BatchPostingLine();
+            line.setAccountNumber(numbers.get(i % numbers.size()));
+            line.setTransactionType(i % 2 == 0 ? Transaction.TransactionType.DEPOSIT : Transaction.TransactionType.WITHDRAW);
+            line.setAmount(new BigDecimal("5.00"));
+            line.setDescription("Benchmark batch");
+            batch.add(line);
+        }
+        transactionTemplate = bank.bean(TransactionTemplate.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(bank.bean(EntityManagerFactory.class));
+        BankAccountRepository accountRepository = bank.bean(BankAccountRepository.class);
+        accountIds = numbers.stream().map(n -> accountRepository.findIdByAccountNumber(n).orElseThrow()).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public AccountDTO.BatchPostingReport post() {
+        AccountDTO.BatchPostingReport report = batchPostingService.post(batch, bank.getClientId());
+        if (report.getRejected() > 0) throw new IllegalStateException(report.getRejected() + " lines rejected");
+        return report;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int insertPooled() {
+        return transactionTemplate.execute(status -> {
+            for (int i = 0; i < LINES; i++) entityManager.persist(row(i));
+            return LINES;
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public int insertIdentity() {
+        return transactionTemplate.execute(status -> {
+            for (int i = 0; i < LINES; i++) entityManager.persist(new IdentityTransaction(row(i)));
+            return LINES;
+        });
+    }
+
+    private Transaction row(int i) {
+        AccountDTO.BatchPostingLine line = batch.get(i);
+        return Transaction.builder()
+                .account(entityManager.getReference(BankAccount.class, accountIds.get(i % accountIds.size())))
+                .transactionType(line.getTransactionType())
+                .amount(line.getAmount())
+                .balanceAfter(new BigDecimal("1000000.00"))
+                .description(line.getDescription())
+                .performedBy(bank.getClientId())
+                .build();
+    }
+}
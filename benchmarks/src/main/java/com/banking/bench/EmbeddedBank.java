@@ -0,0 +1,87 @@
+package com.banking.bench;
+
+import com.banking.BankingSystemApplication;
+import com.banking.dto.AccountDTO;
+import com.banking.entity.User;
+import com.banking.repository.UserRepository;
+import com.banking.service.AccountService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The backend without its web layer, on a private in-memory H2 database in
+ * SQL Server mode. Each instance gets its own database, so trials with
+ * different parameters never see each other's rows.
+ */
+public final class EmbeddedBank implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+    private final Long clientId;
+
+    public EmbeddedBank(String... extraArgs) {
+        String url = "jdbc:h2:mem:bench-" + UUID.randomUUID()
+                + ";MODE=MSSQLServer;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1";
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                // Keep the snapshot job out of the measurements
+                "--banking.snapshots.interval=86400000"));
+        args.addAll(List.of(extraArgs));
+        this.context = new SpringApplicationBuilder(BankingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+        this.clientId = bean(UserRepository.class).save(User.builder()
+                .username("bench-client")
+                .password("unused")
+                .role(User.Role.CLIENT)
+                .name("Benchmark Client")
+                .email("bench@bank.local")
+                .build()).getId();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long getClientId() {
+        return clientId;
+    }
+
+    /** Opens {@code count} accounts for the benchmark client and returns their numbers. */
+    public List<String> openAccounts(int count, BigDecimal initialDeposit, String pin) {
+        AccountService accountService = bean(AccountService.class);
+        List<String> numbers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AccountDTO.CreateAccountRequest request = new AccountDTO.CreateAccountRequest();
+            request.setUserId(clientId);
+            request.setName("Benchmark " + i);
+            request.setPin(pin);
+            request.setInitialDeposit(initialDeposit);
+            numbers.add(accountService.createAccount(request).getAccountNumber());
+        }
+        return numbers;
+    }
+
+    public BigDecimal balanceOf(String accountNumber) {
+        return bean(AccountService.class).getBalance(accountNumber).getBalance();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
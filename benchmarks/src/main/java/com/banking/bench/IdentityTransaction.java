@@ -0,0 +1,59 @@
+package com.banking.bench;
+
+import com.banking.entity.BankAccount;
+import com.banking.entity.Transaction;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The ledger row as it was mapped before pooled sequences: an IDENTITY id,
+ * which Hibernate reads back after every insert, so these rows are never
+ * JDBC-batched. Only on the benchmark classpath, as the baseline in
+ * {@link BatchPostingBenchmark}.
+ */
+@Entity
+@Table(name = "identity_transactions")
+public class IdentityTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private BankAccount account;
+
+    @Column(name = "transaction_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Transaction.TransactionType transactionType;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "balance_after", precision = 15, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column
+    private String description;
+
+    @Column(name = "performed_by")
+    private Long performedBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    protected IdentityTransaction() {
+    }
+
+    /** The same columns the pooled-id row gets from {@code source}. */
+    public IdentityTransaction(Transaction source) {
+        this.account = source.getAccount();
+        this.transactionType = source.getTransactionType();
+        this.amount = source.getAmount();
+        this.balanceAfter = source.getBalanceAfter();
+        this.description = source.getDescription();
+        this.performedBy = source.getPerformedBy();
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,80 @@
+package com.banking.bench;
+
+import com.banking.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Token issue and verification. {@code parseCached} is the per-request path
+ * for a token seen before; {@code parseUncached} is the full signature check
+ * and claims decode a first request pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final long USER_ID = 42L;
+    private static final String ACCOUNT_NUMBER = "100000000008";
+
+    private AnnotationConfigApplicationContext context;
+    private JwtUtil jwtUtil;
+    private String token;
+    private String pinSession;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.secret", "benchmarksecretbenchmarksecret0123456789",
+                "jwt.expiration", "900000")));
+        context.register(JwtUtil.class);
+        context.refresh();
+        jwtUtil = context.getBean(JwtUtil.class);
+        token = jwtUtil.generateToken("bench-client", USER_ID, "CLIENT");
+        pinSession = jwtUtil.generatePinSessionToken(USER_ID, ACCOUNT_NUMBER);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("bench-client", USER_ID, "CLIENT");
+    }
+
+    @Benchmark
+    public Object parseCached() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Object parseUncached() {
+        return jwtUtil.extractClaim(token, Function.identity());
+    }
+
+    @Benchmark
+    public boolean pinSessionCheck() {
+        return jwtUtil.isValidPinSession(pinSession, USER_ID, ACCOUNT_NUMBER);
+    }
+}
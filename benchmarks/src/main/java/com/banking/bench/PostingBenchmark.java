@@ -0,0 +1,127 @@
+package com.banking.bench;
+
+import com.banking.dto.AccountDTO;
+import com.banking.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end deposits and withdrawals through {@link AccountService} against
+ * the embedded database, from eight threads, and from one and 64 threads for
+ * the {@code Writers} variants. With {@code accounts=1} every thread posts to
+ * the same account, which is the lock and lost-update stress case; teardown
+ * fails the run if the final balances do not add up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class PostingBenchmark {
+
+    private static final BigDecimal OPENING = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    private static final String PIN = "4321";
+
+    @Param({"1", "64"})
+    public int accounts;
+
+    private EmbeddedBank bank;
+    private AccountService accountService;
+    private List<String> numbers;
+    private final LongAdder deposits = new LongAdder();
+    private final LongAdder withdrawals = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        bank = new EmbeddedBank();
+        accountService = bank.bean(AccountService.class);
+        numbers = bank.openAccounts(accounts, OPENING, PIN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            BigDecimal expected = OPENING.multiply(BigDecimal.valueOf(accounts))
+                    .add(AMOUNT.multiply(BigDecimal.valueOf(deposits.sum() - withdrawals.sum())));
+            BigDecimal actual = numbers.stream().map(bank::balanceOf).reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (actual.compareTo(expected) != 0) {
+                throw new IllegalStateException("Balances total " + actual + ", expected " + expected);
+            }
+        } finally {
+            bank.close();
+        }
+    }
+
+    @Benchmark
+    public AccountDTO.TransactionResponse deposit() {
+        AccountDTO.TransactionResponse response = accountService.deposit(request(null), bank.getClientId());
+        deposits.increment();
+        return response;
+    }
+
+    @Benchmark
+    public AccountDTO.TransactionResponse withdraw() {
+        AccountDTO.TransactionResponse response = accountService.withdraw(request(null), bank.getClientId());
+        withdrawals.increment();
+        return response;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AccountDTO.TransactionResponse depositOneWriter() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public AccountDTO.TransactionResponse depositSixtyFourWriters() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AccountDTO.TransactionResponse withdrawOneWriter() {
+        return withdraw();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public AccountDTO.TransactionResponse withdrawSixtyFourWriters() {
+        return withdraw();
+    }
+
+    @Benchmark
+    public AccountDTO.TransactionResponse withdrawWithPin() {
+        AccountDTO.TransactionResponse response = accountService.withdraw(request(PIN), bank.getClientId());
+        withdrawals.increment();
+        return response;
+    }
+
+    private AccountDTO.TransactionRequest request(String pin) {
+        AccountDTO.TransactionRequest request = new AccountDTO.TransactionRequest();
+        request.setAccountNumber(numbers.get(ThreadLocalRandom.current().nextInt(numbers.size())));
+        request.setAmount(AMOUNT);
+        request.setPin(pin);
+        return request;
+    }
+}
@@ -0,0 +1,114 @@
+package com.banking.bench;
+
+import com.banking.dto.AccountDTO;
+import com.banking.service.AccountService;
+import com.banking.service.PostingExecutor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Random transfers over a small set of accounts from eight threads, so pairs
+ * overlap and opposite transfers race. Reports transfers that gave up after
+ * the executor's retries as {@code failed}, and the executor's own
+ * {@code retries} and {@code failuresAfterRetries} per iteration, all as
+ * secondary results. Teardown fails the run if money was created or lost.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class TransferBenchmark {
+
+    private static final BigDecimal OPENING = new BigDecimal("1000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"2", "8", "64"})
+    public int accounts;
+
+    private EmbeddedBank bank;
+    private AccountService accountService;
+    private PostingExecutor postingExecutor;
+    private List<String> numbers;
+    private final AtomicLong claimedRetries = new AtomicLong();
+    private final AtomicLong claimedFailures = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long failed;
+        public long retries;
+        public long failuresAfterRetries;
+
+        @TearDown(Level.Iteration)
+        public void collect(TransferBenchmark benchmark) {
+            retries = claim(benchmark.claimedRetries, benchmark.postingExecutor.getRetries());
+            failuresAfterRetries = claim(benchmark.claimedFailures, benchmark.postingExecutor.getFailures());
+        }
+
+        // Each thread takes what the executor counted since the last claim, so the threads' values add up to its total
+        private static long claim(AtomicLong claimed, long total) {
+            return Math.max(0, total - claimed.getAndAccumulate(total, Math::max));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        bank = new EmbeddedBank();
+        accountService = bank.bean(AccountService.class);
+        postingExecutor = bank.bean(PostingExecutor.class);
+        numbers = bank.openAccounts(accounts, OPENING, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            BigDecimal expected = OPENING.multiply(BigDecimal.valueOf(accounts));
+            BigDecimal actual = numbers.stream().map(bank::balanceOf).reduce(BigDecimal.ZERO, BigDecimal::add);
+            if (actual.compareTo(expected) != 0) {
+                throw new IllegalStateException("Balances total " + actual + ", expected " + expected);
+            }
+        } finally {
+            bank.close();
+        }
+    }
+
+    @Benchmark
+    public Object transfer(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts);
+        int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+        AccountDTO.TransferRequest request = new AccountDTO.TransferRequest();
+        request.setFromAccountNumber(numbers.get(from));
+        request.setToAccountNumber(numbers.get(to));
+        request.setAmount(AMOUNT);
+        try {
+            return accountService.transfer(request, bank.getClientId());
+        } catch (ConcurrencyFailureException e) {
+            outcomes.failed++;
+            return e;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.banking.service;
+
+import com.banking.bench.EmbeddedBank;
+import com.banking.dto.AccountDTO;
+import com.banking.entity.Bank;
+import com.banking.entity.BankAccount;
+import com.banking.entity.Transaction;
+import com.banking.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping in {@link AccountService}, run once per listed account
+ * or transaction. Lives in the service package to reach the package-private
+ * mappers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private EmbeddedBank bank;
+    private AccountService accountService;
+    private BankAccount account;
+    private Transaction transaction;
+
+    @Setup
+    public void setUp() {
+        bank = new EmbeddedBank();
+        accountService = bank.bean(AccountService.class);
+        account = BankAccount.builder()
+                .id(1L)
+                .accountNumber("100000000008")
+                .user(User.builder().id(7L).build())
+                .bank(Bank.builder().id(3L).bankName("Benchmark Bank").build())
+                .name("Benchmark Account")
+                .balance(new BigDecimal("1250.75"))
+                .accountType(BankAccount.AccountType.SAVINGS)
+                .isActive(true)
+                .build();
+        transaction = Transaction.builder()
+                .id(11L)
+                .account(account)
+                .transactionType(Transaction.TransactionType.DEPOSIT)
+                .amount(new BigDecimal("100.00"))
+                .balanceAfter(new BigDecimal("1250.75"))
+                .description("Benchmark deposit")
+                .performedBy(7L)
+                .createdAt(LocalDateTime.of(2025, 1, 31, 12, 0))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bank.close();
+    }
+
+    @Benchmark
+    public AccountDTO.AccountResponse toResponse() {
+        return accountService.toResponse(account);
+    }
+
+    @Benchmark
+    public AccountDTO.TransactionResponse toTransactionResponse() {
+        return accountService.toTransactionResponse(transaction, account.getAccountNumber());
+    }
+}
@@ -15,6 +15,7 @@ export const AuthProvider = ({ children }) => {
 
   const loginUser = (data) => {
     localStorage.setItem('token', data.token);
+    localStorage.setItem('refreshToken', data.refreshToken);
     localStorage.setItem('role', data.role);
     localStorage.setItem('userId', data.userId);
     localStorage.setItem('name', data.name);
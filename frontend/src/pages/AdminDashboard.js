@@ -70,7 +70,7 @@ export default function AdminDashboard() {
     if (tab === 'users') getAllUsers().then(r => setUsers(r.data)).catch(() => {});
     if (tab === 'banks') getAllBanks().then(r => setBanks(r.data)).catch(() => {});
     if (tab === 'accounts') getAllAccountsAdmin().then(r => setAccounts(r.data)).catch(() => {});
-    if (tab === 'transactions') getAllTransactionsAdmin().then(r => setTransactions(r.data)).catch(() => {});
+    if (tab === 'transactions') getAllTransactionsAdmin().then(r => setTransactions(r.data.items)).catch(() => {});
   }, [tab]);
 
   const handleCreateUser = async (e) => {
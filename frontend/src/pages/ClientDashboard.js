@@ -47,7 +47,7 @@ export default function ClientDashboard() {
 
   useEffect(() => {
     if (selectedAcc) {
-      getTransactions(selectedAcc).then(r => setTransactions(r.data)).catch(() => {});
+      getTransactions(selectedAcc).then(r => setTransactions(r.data.items)).catch(() => {});
       getBalance(selectedAcc).then(r => setBalanceData(r.data)).catch(() => {});
     }
   }, [selectedAcc]);
@@ -82,7 +82,7 @@ export default function TellerDashboard() {
   const handleSearch = async () => {
     try {
       const [txns, bal] = await Promise.all([getTransactionsTeller(searchAcc), getBalanceTeller(searchAcc)]);
-      setTransactions(txns.data);
+      setTransactions(txns.data.items);
       setBalance(bal.data);
     } catch { showMsg('Account not found', false); }
   };
@@ -10,9 +10,28 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
+// Renew the access token once with the refresh token before giving up on a 401
+let refreshing = null;
+
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (error.response?.status === 401 && refreshToken && !original._retried) {
+      original._retried = true;
+      try {
+        refreshing = refreshing || axios.post(`${API_BASE}/auth/refresh`, { refreshToken });
+        const { data } = await refreshing;
+        localStorage.setItem('token', data.token);
+        localStorage.setItem('refreshToken', data.refreshToken);
+        return api(original);
+      } catch (e) {
+        // fall through to logout
+      } finally {
+        refreshing = null;
+      }
+    }
     if (error.response?.status === 401) {
       localStorage.clear();
       window.location.href = '/login';
@@ -52,5 +71,6 @@ export const getBalance = (accountNumber) => api.get(`/client/accounts/${account
 export const getTransactions = (accountNumber) => api.get(`/client/accounts/${accountNumber}/transactions`);
 export const setPin = (data) => api.post('/client/accounts/pin', data);
 export const withdrawClient = (data) => api.post('/client/withdraw', data);
+export const transfer = (data) => api.post('/client/transfer', data);
 
 export default api;
@@ -0,0 +1,133 @@
+package com.banking.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Blocking calls to the backend's REST API. Every call is timed and recorded
+ * under {@code METHOD /path}, with numeric path segments replaced by
+ * {@code {n}} so all accounts share one row; calls are also appended to the
+ * capture log when there is one. A 401 triggers one re-login and retry.
+ */
+final class BankApi {
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String LOGIN = "/api/auth/login";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper json = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyStats stats;
+    private final RequestLog.Writer capture;
+
+    BankApi(String baseUrl, LatencyStats stats, RequestLog.Writer capture) {
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.capture = capture;
+    }
+
+    static final class Session {
+        final String username;
+        final String password;
+        volatile String token;
+        volatile long userId;
+
+        Session(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+    }
+
+    record Response(int status, JsonNode body) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    Session login(String username, String password) {
+        Session session = new Session(username, password);
+        relogin(session);
+        return session;
+    }
+
+    void relogin(Session session) {
+        ObjectNode body = json.createObjectNode().put("username", session.username).put("password", session.password);
+        if (capture != null) capture.append(session.username, "POST", LOGIN, null);
+        Response response = send(null, "POST", LOGIN, body);
+        if (!response.ok()) {
+            throw new IllegalStateException("Login as " + session.username + " failed with status " + response.status());
+        }
+        session.token = response.body().path("token").asText();
+        session.userId = response.body().path("userId").asLong();
+    }
+
+    Response get(Session session, String path) {
+        return call(session, "GET", path, null);
+    }
+
+    Response post(Session session, String path, JsonNode body) {
+        return call(session, "POST", path, body);
+    }
+
+    Response call(Session session, String method, String path, JsonNode body) {
+        if (capture != null) capture.append(session.username, method, path, body);
+        Response response = send(session, method, path, body);
+        if (response.status() == 401) {
+            relogin(session);
+            response = send(session, method, path, body);
+        }
+        return response;
+    }
+
+    ObjectNode object() {
+        return json.createObjectNode();
+    }
+
+    private Response send(Session session, String method, String path, JsonNode body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (session != null) request.header("Authorization", "Bearer " + session.token);
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body.toString()));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        String endpoint = method + " " + NUMERIC_SEGMENT.matcher(path.split("\\?", 2)[0]).replaceAll("/{n}");
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            stats.record(endpoint, System.nanoTime() - started, response.statusCode() >= 400);
+            return new Response(response.statusCode(), parse(response.body()));
+        } catch (IOException e) {
+            stats.record(endpoint, System.nanoTime() - started, true);
+            return new Response(-1, MissingNode.getInstance());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, MissingNode.getInstance());
+        }
+    }
+
+    private JsonNode parse(String body) {
+        if (body == null || body.isBlank()) return MissingNode.getInstance();
+        try {
+            return json.readTree(body);
+        } catch (IOException e) {
+            return MissingNode.getInstance();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options, all given as {@code --name=value}.
+ */
+record HarnessOptions(
+        String baseUrl,
+        int users,
+        Map<Role, Integer> mix,
+        Duration duration,
+        Duration warmup,
+        long thinkMs,
+        int relogEvery,
+        int clients,
+        int tellers,
+        String password,
+        String pin,
+        Path capture,
+        Path replay,
+        double speed,
+        Path report) {
+
+    enum Role { TELLER, CLIENT, ADMIN }
+
+    static final String USAGE = """
+            Mixed load:  --base-url=http://localhost:8080 --users=50 --mix=teller:20,client:75,admin:5
+                         --duration=60 --warmup=10 --think-ms=0 --relog-every=200
+                         --clients=500 --tellers=20 --password=perf123 --pin=1234 [--capture=requests.ndjson]
+            Replay:      --replay=requests.ndjson [--speed=1.0] [--base-url=...] [--password=...] [--pin=...]
+            Either mode: [--report=report.json]
+            Durations are in seconds.""";
+
+    private static final Set<String> KNOWN = Set.of("base-url", "users", "mix", "duration", "warmup", "think-ms",
+            "relog-every", "clients", "tellers", "password", "pin", "capture", "replay", "speed", "report");
+
+    static HarnessOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) throw new IllegalArgumentException("Unexpected argument: " + arg);
+            int eq = arg.indexOf('=');
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        HarnessOptions options = new HarnessOptions(
+                stripSlash(values.getOrDefault("base-url", "http://localhost:8080")),
+                Integer.parseInt(values.getOrDefault("users", "50")),
+                parseMix(values.getOrDefault("mix", "teller:20,client:75,admin:5")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Long.parseLong(values.getOrDefault("think-ms", "0")),
+                Integer.parseInt(values.getOrDefault("relog-every", "200")),
+                Integer.parseInt(values.getOrDefault("clients", "500")),
+                Integer.parseInt(values.getOrDefault("tellers", "20")),
+                values.getOrDefault("password", "perf123"),
+                values.getOrDefault("pin", "1234"),
+                path(values.get("capture")),
+                path(values.get("replay")),
+                Double.parseDouble(values.getOrDefault("speed", "1.0")),
+                path(values.get("report")));
+        for (String key : values.keySet()) {
+            if (!KNOWN.contains(key)) throw new IllegalArgumentException("Unknown option: --" + key);
+        }
+        return options;
+    }
+
+    private static Map<Role, Integer> parseMix(String mix) {
+        Map<Role, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] roleAndWeight = part.trim().split(":");
+            weights.put(Role.valueOf(roleAndWeight[0].trim().toUpperCase()), Integer.parseInt(roleAndWeight[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix weights must add up to more than 0");
+        }
+        return weights;
+    }
+
+    private static Path path(String value) {
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+
+    private static String stripSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
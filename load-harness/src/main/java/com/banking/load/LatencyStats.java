@@ -0,0 +1,118 @@
+package com.banking.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response times per endpoint. Every sample is kept, so percentiles are exact;
+ * at a few thousand requests a second that is a few MB per minute.
+ */
+final class LatencyStats {
+
+    private final ConcurrentHashMap<String, Samples> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording = true;
+    private volatile long startedNanos = System.nanoTime();
+    private volatile long stoppedNanos;
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean error) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = latencyNanos;
+            if (error) errors++;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+
+    void record(String endpoint, long latencyNanos, boolean error) {
+        if (!recording) return;
+        endpoints.computeIfAbsent(endpoint, e -> new Samples()).add(latencyNanos, error);
+    }
+
+    /** Drops everything recorded so far, e.g. at the end of the warmup. */
+    void reset() {
+        endpoints.clear();
+        startedNanos = System.nanoTime();
+    }
+
+    void stop() {
+        recording = false;
+        stoppedNanos = System.nanoTime();
+    }
+
+    Map<String, Object> summary() {
+        double seconds = Math.max(1e-9, (stoppedNanos - startedNanos) / 1e9);
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        new TreeMap<>(endpoints).forEach((endpoint, samples) -> {
+            long[] sorted = samples.sorted();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("count", sorted.length);
+            row.put("errors", samples.errors());
+            row.put("throughput", round(sorted.length / seconds));
+            row.put("p50Ms", millis(percentile(sorted, 0.50)));
+            row.put("p95Ms", millis(percentile(sorted, 0.95)));
+            row.put("p99Ms", millis(percentile(sorted, 0.99)));
+            row.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            byEndpoint.put(endpoint, row);
+        });
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("seconds", round(seconds));
+        summary.put("endpoints", byEndpoint);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    void print(PrintStream out) {
+        Map<String, Object> summary = summary();
+        out.printf("%n%-44s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        ((Map<String, Map<String, Object>>) summary.get("endpoints")).forEach((endpoint, row) ->
+                out.printf("%-44s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint,
+                        row.get("count"), row.get("errors"), row.get("throughput"),
+                        row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs")));
+        out.printf("over %.1f s%n", summary.get("seconds"));
+    }
+
+    void write(Path report, Map<String, Object> run) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>(run);
+        document.putAll(summary());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), document);
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(p * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.load;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Drives a running backend over HTTP, either with a teller/client/admin mix
+ * ({@link MixedWorkload}) or by replaying a captured request log
+ * ({@link Replay}), and prints throughput and p50/p95/p99 per endpoint.
+ * Meant for a server started with the {@code perf} profile.
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        HarnessOptions options;
+        try {
+            options = HarnessOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(HarnessOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        LatencyStats stats = new LatencyStats();
+        try (RequestLog.Writer capture = options.capture() != null ? new RequestLog.Writer(options.capture()) : null) {
+            BankApi api = new BankApi(options.baseUrl(), stats, capture);
+            if (options.replay() != null) {
+                new Replay(api, options, stats).run();
+            } else {
+                System.out.printf("%d users, mix %s, against %s, %ds warmup + %ds%n", options.users(), options.mix(),
+                        options.baseUrl(), options.warmup().toSeconds(), options.duration().toSeconds());
+                new MixedWorkload(api, options, stats).run();
+            }
+        }
+
+        stats.print(System.out);
+        if (options.report() != null) {
+            Map<String, Object> run = new LinkedHashMap<>();
+            run.put("mode", options.replay() != null ? "replay" : "mix");
+            run.put("baseUrl", options.baseUrl());
+            if (options.replay() != null) {
+                run.put("replay", options.replay().toString());
+                run.put("speed", options.speed());
+            } else {
+                run.put("users", options.users());
+                run.put("mix", options.mix());
+            }
+            stats.write(options.report(), run);
+        }
+    }
+}
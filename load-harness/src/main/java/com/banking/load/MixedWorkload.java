@@ -0,0 +1,194 @@
+package com.banking.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load: {@code users} virtual users, each on its own virtual
+ * thread, split between tellers, clients and admins by the mix weights. Each
+ * logs in as a seeded user from the {@code perf} profile and then issues
+ * requests back to back (plus {@code think-ms}), logging in again every
+ * {@code relog-every} requests. Per role:
+ * <ul>
+ *   <li>teller: deposit 35%, withdraw 20%, balance 25%, transactions 20%</li>
+ *   <li>client: balance 50%, transactions 35%, withdraw with a PIN session 15%</li>
+ *   <li>admin: dashboard 70%, all transactions 30%</li>
+ * </ul>
+ */
+final class MixedWorkload {
+
+    private static final long PIN_SESSION_REFRESH_MS = TimeUnit.MINUTES.toMillis(4);
+
+    private final BankApi api;
+    private final HarnessOptions options;
+    private final LatencyStats stats;
+    private volatile boolean running = true;
+
+    MixedWorkload(BankApi api, HarnessOptions options, LatencyStats stats) {
+        this.api = api;
+        this.options = options;
+        this.stats = stats;
+    }
+
+    void run() throws InterruptedException {
+        List<HarnessOptions.Role> roles = assignRoles();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < roles.size(); i++) {
+                HarnessOptions.Role role = roles.get(i);
+                int index = i;
+                users.submit(() -> {
+                    try {
+                        new VirtualUser(role, index).run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException e) {
+                        System.err.println(role + " user " + index + " stopped: " + e.getMessage());
+                    }
+                });
+            }
+            Thread.sleep(options.warmup().toMillis());
+            stats.reset();
+            Thread.sleep(options.duration().toMillis());
+            stats.stop();
+            running = false;
+        }
+    }
+
+    // Largest-remainder split, so the role counts match the weights as closely as possible
+    private List<HarnessOptions.Role> assignRoles() {
+        int total = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        Map<HarnessOptions.Role, Integer> counts = new HashMap<>();
+        int assigned = 0;
+        for (var weight : options.mix().entrySet()) {
+            int count = options.users() * weight.getValue() / total;
+            counts.put(weight.getKey(), count);
+            assigned += count;
+        }
+        List<Map.Entry<HarnessOptions.Role, Integer>> byRemainder = new ArrayList<>(options.mix().entrySet());
+        byRemainder.sort((a, b) -> Integer.compare(
+                options.users() * b.getValue() % total, options.users() * a.getValue() % total));
+        for (int i = 0; assigned < options.users(); i++, assigned++) {
+            counts.merge(byRemainder.get(i % byRemainder.size()).getKey(), 1, Integer::sum);
+        }
+        List<HarnessOptions.Role> roles = new ArrayList<>(options.users());
+        counts.forEach((role, count) -> roles.addAll(Collections.nCopies(count, role)));
+        return roles;
+    }
+
+    private final class VirtualUser {
+        private final HarnessOptions.Role role;
+        private final BankApi.Session session;
+        private final List<String> accounts = new ArrayList<>();
+        private final Map<String, String> pinSessions = new HashMap<>();
+        private final Map<String, Long> pinSessionOpened = new HashMap<>();
+
+        VirtualUser(HarnessOptions.Role role, int index) {
+            this.role = role;
+            String username = switch (role) {
+                case TELLER -> "teller" + (1 + index % options.tellers());
+                case CLIENT -> "client" + (1 + index % options.clients());
+                case ADMIN -> "admin";
+            };
+            this.session = api.login(username, options.password());
+        }
+
+        void run() throws InterruptedException {
+            loadAccounts();
+            int requests = 0;
+            while (running) {
+                int roll = ThreadLocalRandom.current().nextInt(100);
+                switch (role) {
+                    case TELLER -> teller(roll);
+                    case CLIENT -> client(roll);
+                    case ADMIN -> admin(roll);
+                }
+                if (options.relogEvery() > 0 && ++requests % options.relogEvery() == 0) api.relogin(session);
+                if (options.thinkMs() > 0) Thread.sleep(options.thinkMs());
+            }
+        }
+
+        private void loadAccounts() {
+            String path = switch (role) {
+                case TELLER -> "/api/teller/accounts";
+                case CLIENT -> "/api/client/accounts";
+                case ADMIN -> null;
+            };
+            if (path == null) return;
+            BankApi.Response response = api.get(session, path);
+            for (JsonNode account : response.body()) accounts.add(account.path("accountNumber").asText());
+            if (accounts.isEmpty()) throw new IllegalStateException(session.username + " sees no accounts; is the perf profile seeded?");
+        }
+
+        private void teller(int roll) {
+            String account = randomAccount();
+            if (roll < 35) {
+                api.post(session, "/api/teller/deposit", posting(account, amount(100, 20000)));
+            } else if (roll < 55) {
+                api.post(session, "/api/teller/withdraw", posting(account, amount(100, 2000)));
+            } else if (roll < 80) {
+                api.get(session, "/api/teller/accounts/" + account + "/balance");
+            } else {
+                api.get(session, "/api/teller/accounts/" + account + "/transactions?limit=20");
+            }
+        }
+
+        private void client(int roll) {
+            String account = randomAccount();
+            if (roll < 50) {
+                api.get(session, "/api/client/accounts/" + account + "/balance");
+            } else if (roll < 85) {
+                api.get(session, "/api/client/accounts/" + account + "/transactions?limit=20");
+            } else {
+                String pinSession = pinSession(account);
+                if (pinSession != null) {
+                    api.post(session, "/api/client/withdraw", posting(account, amount(100, 2000))
+                            .put("pinSession", pinSession));
+                }
+            }
+        }
+
+        private void admin(int roll) {
+            if (roll < 70) {
+                api.get(session, "/api/admin/dashboard");
+            } else {
+                api.get(session, "/api/admin/transactions?limit=50");
+            }
+        }
+
+        private String pinSession(String account) {
+            Long opened = pinSessionOpened.get(account);
+            if (opened == null || System.currentTimeMillis() - opened > PIN_SESSION_REFRESH_MS) {
+                BankApi.Response response = api.post(session, "/api/client/accounts/pin/session",
+                        api.object().put("accountNumber", account).put("pin", options.pin()));
+                // A busy PIN pool answers 503; try again on the next withdrawal
+                if (!response.ok()) return null;
+                pinSessions.put(account, response.body().path("pinSession").asText());
+                pinSessionOpened.put(account, System.currentTimeMillis());
+            }
+            return pinSessions.get(account);
+        }
+
+        private ObjectNode posting(String account, BigDecimal amount) {
+            return api.object().put("accountNumber", account).put("amount", amount).put("description", "Load test");
+        }
+
+        private String randomAccount() {
+            return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size()));
+        }
+
+        private static BigDecimal amount(int minCents, int maxCents) {
+            return BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(minCents, maxCents + 1), 2);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.banking.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Open-loop replay of a {@link RequestLog}: every entry is sent at its
+ * original offset (divided by {@code speed}) on its own virtual thread,
+ * whether or not earlier requests have answered, so a slow server sees the
+ * same arrival pattern as when the log was captured. Each user is logged in
+ * once on first use; PIN-session placeholders get a fresh session per user
+ * and account.
+ */
+final class Replay {
+
+    private static final String LOGIN = "/api/auth/login";
+
+    private final BankApi api;
+    private final HarnessOptions options;
+    private final LatencyStats stats;
+    private final ConcurrentHashMap<String, BankApi.Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, String> pinSessions = new ConcurrentHashMap<>();
+
+    Replay(BankApi api, HarnessOptions options, LatencyStats stats) {
+        this.api = api;
+        this.options = options;
+        this.stats = stats;
+    }
+
+    void run() throws IOException, InterruptedException {
+        List<RequestLog.Entry> entries = RequestLog.read(options.replay());
+        System.out.printf("Replaying %d requests at %.2fx%n", entries.size(), options.speed());
+        stats.reset();
+        long startedNanos = System.nanoTime();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (RequestLog.Entry entry : entries) {
+                long dueNanos = startedNanos + TimeUnit.MILLISECONDS.toNanos((long) (entry.offsetMs() / options.speed()));
+                long waitNanos = dueNanos - System.nanoTime();
+                if (waitNanos > 0) TimeUnit.NANOSECONDS.sleep(waitNanos);
+                requests.submit(() -> send(entry));
+            }
+        }
+        stats.stop();
+    }
+
+    private void send(RequestLog.Entry entry) {
+        try {
+            if (LOGIN.equals(entry.path())) {
+                BankApi.Session session = sessions.get(entry.user());
+                if (session == null) session(entry.user());
+                else api.relogin(session);
+                return;
+            }
+            BankApi.Session session = session(entry.user());
+            api.call(session, entry.method(), entry.path(), resolve(session, entry.body()));
+        } catch (RuntimeException e) {
+            System.err.println("Replay of " + entry.method() + " " + entry.path() + " as " + entry.user()
+                    + " failed: " + e.getMessage());
+        }
+    }
+
+    private BankApi.Session session(String user) {
+        return sessions.computeIfAbsent(user, u -> api.login(u, options.password()));
+    }
+
+    private JsonNode resolve(BankApi.Session session, JsonNode body) {
+        if (!(body instanceof ObjectNode object) || !RequestLog.PIN_SESSION.equals(object.path("pinSession").asText())) {
+            return body;
+        }
+        String account = object.hasNonNull("accountNumber")
+                ? object.get("accountNumber").asText() : object.path("fromAccountNumber").asText();
+        String key = session.username + "|" + account;
+        String pinSession = pinSessions.get(key);
+        if (pinSession == null) {
+            BankApi.Response response = api.post(session, "/api/client/accounts/pin/session",
+                    api.object().put("accountNumber", account).put("pin", options.pin()));
+            // Replayed as is without a session when the server refuses one, so the failure shows in the report
+            pinSession = response.ok() ? response.body().path("pinSession").asText() : "";
+            if (response.ok()) pinSessions.put(key, pinSession);
+        }
+        return object.deepCopy().put("pinSession", pinSession);
+    }
+}
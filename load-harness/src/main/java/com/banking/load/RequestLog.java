@@ -0,0 +1,92 @@
+package com.banking.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Captured requests, one JSON object per line:
+ * <pre>{"offsetMs":1250,"user":"client7","method":"POST","path":"/api/client/withdraw","body":{...}}</pre>
+ * {@code offsetMs} is the time since the start of the capture. Logins are
+ * recorded without a body, and PIN sessions as {@value #PIN_SESSION}; the
+ * replayer logs in with its own password and opens fresh PIN sessions. A log
+ * from production traffic can be converted to this shape and replayed as is.
+ */
+final class RequestLog {
+
+    static final String PIN_SESSION = "${pinSession}";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    record Entry(long offsetMs, String user, String method, String path, JsonNode body) {
+    }
+
+    static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                if (line.isBlank()) continue;
+                JsonNode node = JSON.readTree(line);
+                if (!node.hasNonNull("user") || !node.hasNonNull("method") || !node.hasNonNull("path")) {
+                    throw new IOException("Line " + number + ": user, method and path are required");
+                }
+                JsonNode body = node.get("body");
+                entries.add(new Entry(node.path("offsetMs").asLong(), node.get("user").asText(),
+                        node.get("method").asText().toUpperCase(), node.get("path").asText(),
+                        body == null || body.isNull() ? null : body));
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::offsetMs));
+        return entries;
+    }
+
+    static final class Writer implements AutoCloseable {
+        private final BufferedWriter out;
+        private final long startedNanos = System.nanoTime();
+
+        Writer(Path file) throws IOException {
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        }
+
+        void append(String user, String method, String path, JsonNode body) {
+            ObjectNode line = JSON.createObjectNode();
+            line.put("offsetMs", (System.nanoTime() - startedNanos) / 1_000_000);
+            line.put("user", user);
+            line.put("method", method);
+            line.put("path", path);
+            if (body != null) {
+                JsonNode copy = body.deepCopy();
+                if (copy instanceof ObjectNode object && object.has("pinSession")) object.put("pinSession", PIN_SESSION);
+                line.set("body", copy);
+            }
+            try {
+                String text = JSON.writeValueAsString(line);
+                synchronized (this) {
+                    out.write(text);
+                    out.newLine();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+}
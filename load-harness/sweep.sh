@@ -0,0 +1,84 @@
+#!/bin/bash
+
+# ============================================================
+#  Thread-mode sweep
+#  Runs the load harness at each user count against a fresh
+#  perf-profile backend with VIRTUAL_THREADS=false and true,
+#  keeps one JSON report per run and prints a summary table.
+#
+#  Settings (environment): USERS, MODES, DURATION, WARMUP,
+#  PORT, MANAGEMENT_PORT, OUT, JAVA. Build the backend jar first:
+#    mvn -f backend package -DskipTests
+# ============================================================
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+JAR="$SCRIPT_DIR/../backend/target/banking-system-1.0.0-exec.jar"
+
+USERS="${USERS:-200 2000 20000}"
+MODES="${MODES:-false true}"
+DURATION="${DURATION:-60}"
+WARMUP="${WARMUP:-10}"
+PORT="${PORT:-8090}"
+MANAGEMENT_PORT="${MANAGEMENT_PORT:-8190}"
+OUT="${OUT:-$SCRIPT_DIR/target/sweep}"
+JAVA="${JAVA:-java}"
+
+SERVER_PID=""
+
+stop_server() {
+  if [ -n "$SERVER_PID" ]; then
+    kill "$SERVER_PID" 2>/dev/null || true
+    wait "$SERVER_PID" 2>/dev/null || true
+    SERVER_PID=""
+  fi
+}
+trap stop_server EXIT
+
+if [ ! -f "$JAR" ]; then
+  echo "Backend jar not found at $JAR; run: mvn -f backend package -DskipTests" >&2
+  exit 1
+fi
+
+mkdir -p "$OUT"
+mvn -B -q -f "$SCRIPT_DIR" compile
+
+for mode in $MODES; do
+  for users in $USERS; do
+    run="vt-$mode-users-$users"
+    echo "── $run"
+
+    # A fresh server per run, so no run inherits another's data or heap
+    VIRTUAL_THREADS="$mode" "$JAVA" -jar "$JAR" --spring.profiles.active=perf \
+      --server.port="$PORT" --management.server.port="$MANAGEMENT_PORT" > "$OUT/$run.server.log" 2>&1 &
+    SERVER_PID=$!
+    for _ in $(seq 180); do
+      grep -q "Started BankingSystemApplication" "$OUT/$run.server.log" && break
+      if ! kill -0 "$SERVER_PID" 2>/dev/null; then
+        echo "Server exited during startup, see $OUT/$run.server.log" >&2
+        exit 1
+      fi
+      sleep 1
+    done
+
+    mvn -B -q -f "$SCRIPT_DIR" exec:java -Dexec.args="--base-url=http://localhost:$PORT --users=$users \
+--duration=$DURATION --warmup=$WARMUP --report=$OUT/$run.json" | tee "$OUT/$run.txt"
+    stop_server
+  done
+done
+
+# One line per run: requests/s, errors and the worst endpoint p99 across all endpoints
+if command -v jq > /dev/null; then
+  echo
+  printf "%-26s %12s %10s %10s\n" "run" "requests/s" "errors" "max p99 ms"
+  for mode in $MODES; do
+    for users in $USERS; do
+      run="vt-$mode-users-$users"
+      [ -f "$OUT/$run.json" ] || continue
+      jq -r --arg run "$run" '[.endpoints[]] as $e |
+        [$run, ([$e[].throughput] | add), ([$e[].errors] | add), ([$e[].p99Ms] | max)] | @tsv' "$OUT/$run.json" |
+        awk -F'\t' '{ printf "%-26s %12.1f %10d %10.1f\n", $1, $2, $3, $4 }'
+    done
+  done
+fi
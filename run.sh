@@ -59,7 +59,7 @@ mvn clean package -DskipTests -q \
   || { echo -e "${RED}✗ Backend build failed. Check $BACKEND_LOG for details.${NC}"; exit 1; }
 
 # Find the generated JAR
-JAR_FILE=$(find "$BACKEND_DIR/target" -maxdepth 1 -name "*.jar" ! -name "*sources*" | head -1)
+JAR_FILE=$(find "$BACKEND_DIR/target" -maxdepth 1 -name "*-exec.jar" | head -1)
 if [ -z "$JAR_FILE" ]; then
   echo -e "${RED}✗ No JAR file found in backend/target/. Build may have failed.${NC}"
   exit 1
@@ -77,7 +77,7 @@ echo "$BACKEND_PID" > "$PID_FILE"
 echo -n "  Waiting for backend"
 TIMEOUT=60
 ELAPSED=0
-until curl -s http://localhost:8080/actuator/health > /dev/null 2>&1 || \
+until curl -s http://localhost:8081/actuator/health > /dev/null 2>&1 || \
       curl -s http://localhost:8080/api/auth/login  > /dev/null 2>&1; do
   sleep 2
   ELAPSED=$((ELAPSED + 2))
@@ -35,10 +35,10 @@ check_command node
 check_command npm
 check_command mysql
 
-# Java version check (need 17+)
+# Java version check (need 21+)
 JAVA_VER=$(java -version 2>&1 | awk -F '"' '/version/ {print $2}' | cut -d'.' -f1)
-if [ "$JAVA_VER" -lt 17 ] 2>/dev/null; then
-  echo -e "${RED}✗ Java 17+ is required (found Java $JAVA_VER). Please upgrade.${NC}"
+if [ "$JAVA_VER" -lt 21 ] 2>/dev/null; then
+  echo -e "${RED}✗ Java 21+ is required (found Java $JAVA_VER). Please upgrade.${NC}"
   exit 1
 fi
 echo -e "${GREEN}✓ Java version OK ($JAVA_VER)${NC}"